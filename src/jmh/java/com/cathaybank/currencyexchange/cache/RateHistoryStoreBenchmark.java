@@ -0,0 +1,120 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.CurrencyExchangeApplication;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Range reads of {@code years} of daily USD/EUR rates from the memory-mapped rate history and from the database: one
+ * page of 500 starting at a different point each time, and the whole history in one read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateHistoryStoreBenchmark {
+
+    private static final LocalDate LAST_DAY = LocalDate.of(2024, 1, 1);
+
+    // One USD/EUR rate per day at noon, going back X days from the last day
+    private static final String GENERATE_ROWS_SQL =
+            "INSERT INTO exchange_rate (id, base_currency_id, quote_currency_id, rate, date, source) " +
+            "SELECT CAST(RANDOM_UUID() AS VARCHAR(36)), " +
+            "'550e8400-e29b-41d4-a716-446655440000', '550e8400-e29b-41d4-a716-446655440001', " +
+            "1 + MOD(X, 1000) / 10000.0, " +
+            "DATEADD('DAY', -X, TIMESTAMP '2024-01-01 12:00:00'), " +
+            "'BENCHMARK' " +
+            "FROM SYSTEM_RANGE(0, ? - 1)";
+
+    @Param({"40"})
+    private int years;
+
+    private ConfigurableApplicationContext context;
+    private RateHistoryStore rateHistoryStore;
+    private ExchangeRateRepository exchangeRateRepository;
+    private Currency usd;
+    private Currency eur;
+    private LocalDateTime firstDate;
+    private LocalDateTime lastDate;
+    private int days;
+    private int pageStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CurrencyExchangeApplication.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they override application.properties, whose DEBUG logging would dominate
+                .run("--spring.datasource.url=jdbc:h2:mem:jmhdb;QUERY_CACHE_SIZE=0",
+                        "--scheduler.exchange-rate.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.cathaybank=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        days = (int) (LAST_DAY.toEpochDay() - LAST_DAY.minusYears(years).toEpochDay());
+        context.getBean(JdbcTemplate.class).update(GENERATE_ROWS_SQL, days);
+        context.getBean(JdbcTemplate.class).execute("ANALYZE");
+
+        rateHistoryStore = context.getBean(RateHistoryStore.class);
+        exchangeRateRepository = context.getBean(ExchangeRateRepository.class);
+        CurrencyCache currencyCache = context.getBean(CurrencyCache.class);
+        usd = currencyCache.findByCode("USD").orElseThrow();
+        eur = currencyCache.findByCode("EUR").orElseThrow();
+        firstDate = LAST_DAY.minusDays(days - 1).atStartOfDay();
+        lastDate = LAST_DAY.atTime(23, 59, 59);
+        // Builds the pair's files
+        storeWholeRange();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ExchangeRateDTO> storePage() {
+        return rateHistoryStore.findPage(usd, eur, nextPageStart(), null, lastDate, 501).orElseThrow();
+    }
+
+    @Benchmark
+    public List<ExchangeRateDTO> databasePage() {
+        return exchangeRateRepository.findPage(usd, eur, nextPageStart(), null, lastDate, 501);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<ExchangeRateDTO> storeWholeRange() {
+        return rateHistoryStore.findPage(usd, eur, firstDate, null, lastDate, days + 1).orElseThrow();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<ExchangeRateDTO> databaseWholeRange() {
+        return exchangeRateRepository.findPage(usd, eur, firstDate, null, lastDate, days + 1);
+    }
+
+    // Walks the page start through the history so every read has to search for it
+    private LocalDateTime nextPageStart() {
+        pageStart = (pageStart + 997) % (days - 500);
+        return firstDate.plusDays(pageStart);
+    }
+}
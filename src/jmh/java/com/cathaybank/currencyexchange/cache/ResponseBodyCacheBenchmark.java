@@ -0,0 +1,145 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.dto.ApiResponse;
+import com.cathaybank.currencyexchange.dto.CurrencyDTO;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One GET /currencies (170 currencies, about the ISO 4217 list) or GET /exchange-rates/latest response written from
+ * the response body cache, against building the {@link ApiResponse} and writing it through the MVC JSON converter,
+ * gzipped above 2 KB as the server compresses it, as every request did before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseBodyCacheBenchmark {
+
+    @Param({"currencies", "latest"})
+    private String endpoint;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ResponseBodyCache responseBodyCache;
+    private MappingJackson2HttpMessageConverter converter;
+    private MockHttpServletRequest request;
+    private Supplier<?> body;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for MVC
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        converter = new MappingJackson2HttpMessageConverter(objectMapper);
+        responseBodyCache = new ResponseBodyCache(new DataVersion(), objectMapper, new SimpleMeterRegistry(), true,
+                10000, DataSize.ofKilobytes(2));
+
+        request = new MockHttpServletRequest("GET", "/" + endpoint);
+        if (gzip) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        }
+        if ("currencies".equals(endpoint)) {
+            List<CurrencyDTO> currencies = new ArrayList<>();
+            for (int i = 0; i < 170; i++) {
+                currencies.add(new CurrencyDTO("550e8400-e29b-41d4-a716-" + String.format("%012d", i),
+                        String.valueOf((char) ('A' + i / 26 % 26)) + (char) ('A' + i % 26) + 'X', "Currency " + i));
+            }
+            body = () -> ApiResponse.success(currencies);
+        } else {
+            ExchangeRateDTO rate = new ExchangeRateDTO("550e8400-e29b-41d4-a716-446655440100", "USD", "US Dollar",
+                    "EUR", "Euro", new BigDecimal("0.921234"), LocalDateTime.of(2024, 1, 1, 12, 0), "OANDA");
+            body = () -> ApiResponse.success(rate);
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse cached() throws IOException {
+        MockHttpServletResponse response = new BufferedResponse();
+        responseBodyCache.write(endpoint, request, response, body);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse serialized() throws IOException {
+        MockHttpServletResponse response = new BufferedResponse();
+        ByteArrayOutputStream json = new ByteArrayOutputStream(1024);
+        converter.write(body.get(), MediaType.APPLICATION_JSON, new ServletServerHttpResponse(response) {
+            @Override
+            public OutputStream getBody() {
+                return json;
+            }
+        });
+        if (gzip && json.size() >= 2048) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try (GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream())) {
+                json.writeTo(out);
+            }
+        } else {
+            json.writeTo(response.getOutputStream());
+        }
+        return response;
+    }
+
+    /**
+     * Takes writes in bulk, as the container's stream does; the mock's own stream copies byte by byte.
+     */
+    private static final class BufferedResponse extends MockHttpServletResponse {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                content.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                content.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.cathaybank.currencyexchange.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the {@link ApiResponse} envelope around a list of rates, as returned by the range endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"1", "365", "3650"})
+    private int rates;
+
+    private ObjectWriter writer;
+    private ApiResponse<List<ExchangeRateDTO>> response;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for MVC
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+
+        List<ExchangeRateDTO> data = new ArrayList<>(rates);
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < rates; i++) {
+            data.add(new ExchangeRateDTO(String.valueOf(i), "USD", "US Dollar", "EUR", "Euro",
+                    new BigDecimal("0.921234"), date.minusDays(i), "OANDA"));
+        }
+        response = ApiResponse.success(data);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,127 @@
+package com.cathaybank.currencyexchange.dto;
+
+import com.cathaybank.currencyexchange.controller.ExchangeRateController;
+import com.cathaybank.currencyexchange.util.ExchangeRateSeriesProtobufConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes one page of {@code rates} daily rates in each encoding GET /exchange-rates negotiates, through the same
+ * message converters as the application, optionally gzipped as the server compresses them. The encoded size of each
+ * combination is printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateEncodingBenchmark {
+
+    @Param({"500"})
+    private int rates;
+
+    @Param({"json", "columnarJson", "cbor", "protobuf"})
+    private String encoding;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private HttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private Object body;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        List<ExchangeRateDTO> page = new ArrayList<>(rates);
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < rates; i++) {
+            page.add(new ExchangeRateDTO(String.valueOf(i), "USD", "US Dollar", "EUR", "Euro",
+                    BigDecimal.valueOf(921234 + i % 1000 * 17, 6), date.plusDays(i), "OANDA"));
+        }
+        ExchangeRateSeriesDTO series = ExchangeRateSeriesDTO.of("USD", "EUR", page);
+
+        switch (encoding) {
+            case "json" -> {
+                converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>)
+                        new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+                mediaType = MediaType.APPLICATION_JSON;
+                body = ApiResponse.success(page);
+            }
+            case "columnarJson" -> {
+                converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>)
+                        new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+                mediaType = MediaType.valueOf(ExchangeRateController.COLUMNAR_JSON_VALUE);
+                body = ApiResponse.success(series);
+            }
+            case "cbor" -> {
+                converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>)
+                        new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor().build());
+                mediaType = MediaType.APPLICATION_CBOR;
+                body = ApiResponse.success(series);
+            }
+            case "protobuf" -> {
+                converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>)
+                        new ExchangeRateSeriesProtobufConverter();
+                mediaType = ExchangeRateSeriesProtobufConverter.PROTOBUF;
+                body = series;
+            }
+            default -> throw new IllegalArgumentException("Unknown encoding: " + encoding);
+        }
+        System.out.printf("%n%s, gzip=%s: %d bytes for %d rates%n", encoding, gzip, encode().length, rates);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        BufferedMessage message = new BufferedMessage(gzip);
+        converter.write(body, mediaType, message);
+        return message.toByteArray();
+    }
+
+    private static final class BufferedMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        private final OutputStream body;
+
+        private BufferedMessage(boolean gzip) throws IOException {
+            this.body = gzip ? new GZIPOutputStream(bytes, 8192) : bytes;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        byte[] toByteArray() throws IOException {
+            body.close();
+            return bytes.toByteArray();
+        }
+    }
+}
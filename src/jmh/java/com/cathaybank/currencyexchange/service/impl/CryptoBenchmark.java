@@ -0,0 +1,119 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.service.CryptoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trip cost of {@link CryptoServiceImpl} for small and export-sized payloads, in both modes, against
+ * {@code legacy}: the previous implementation, which looked up a cipher and rebuilt the key and a fixed IV per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CryptoBenchmark {
+
+    private static final String KEY = "BenchmarkKey0123";
+
+    @Param({"64", "65536"})
+    private int payloadSize;
+
+    @Param({"legacy", "CBC", "GCM"})
+    private String implementation;
+
+    private CryptoService cryptoService;
+    private String plainText;
+    private String cipherText;
+
+    @Setup
+    public void setUp() {
+        cryptoService = "legacy".equals(implementation)
+                ? new LegacyCryptoService(KEY, "BenchmarkIv01234")
+                : new CryptoServiceImpl(KEY, implementation);
+
+        plainText = "x".repeat(payloadSize);
+        cipherText = cryptoService.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return cryptoService.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return cryptoService.decrypt(cipherText);
+    }
+
+    /**
+     * The pre-change CryptoServiceImpl, kept only as the baseline.
+     */
+    private static final class LegacyCryptoService implements CryptoService {
+
+        private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+
+        private final String secretKey;
+        private final String initVector;
+
+        private LegacyCryptoService(String secretKey, String initVector) {
+            this.secretKey = secretKey;
+            this.initVector = initVector;
+        }
+
+        @Override
+        public String encrypt(String data) {
+            try {
+                Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+                cipher.init(Cipher.ENCRYPT_MODE, key(), iv());
+                return Base64.getEncoder().encodeToString(cipher.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String decrypt(String encryptedData) {
+            try {
+                Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+                cipher.init(Cipher.DECRYPT_MODE, key(), iv());
+                return new String(cipher.doFinal(Base64.getDecoder().decode(encryptedData)), StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public OutputStream encryptingStream(OutputStream target) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream decryptingStream(InputStream source) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        private SecretKeySpec key() {
+            return new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), "AES");
+        }
+
+        private IvParameterSpec iv() {
+            return new IvParameterSpec(initVector.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
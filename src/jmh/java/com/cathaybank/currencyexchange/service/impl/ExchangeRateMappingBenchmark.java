@@ -0,0 +1,85 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.cache.CurrencyCache;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.entity.ExchangeRate;
+import com.cathaybank.currencyexchange.repository.CurrencyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and building entities from a fetched batch, without any I/O. Parsing the upstream
+ * response itself is measured by {@link OandaChartParserBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExchangeRateMappingBenchmark {
+
+    @Param({"365", "3650"})
+    private int days;
+
+    private ExchangeRateServiceImpl service;
+    private ExchangeRate exchangeRate;
+    private RateBatch rates;
+
+    @Setup
+    public void setUp() {
+        Currency usd = currency("1", "USD", "US Dollar");
+        Currency eur = currency("2", "EUR", "Euro");
+        CurrencyRepository currencyRepository = Mockito.mock(CurrencyRepository.class);
+        Mockito.when(currencyRepository.findAllByOrderByCodeAsc()).thenReturn(List.of(eur, usd));
+
+        service = new ExchangeRateServiceImpl(null, new CurrencyCache(currencyRepository, new SimpleMeterRegistry()),
+                null, null, null, null, null, null, null);
+
+        exchangeRate = ExchangeRate.builder()
+                .id("3")
+                .baseCurrency(usd)
+                .quoteCurrency(eur)
+                .rate(new BigDecimal("0.921234"))
+                .date(LocalDateTime.of(2024, 1, 2, 12, 0))
+                .source("OANDA")
+                .build();
+
+        LocalDate end = LocalDate.of(2023, 12, 31);
+        RateBatch.Builder batch = RateBatch.builder("USD", "EUR", "OANDA", days);
+        end.minusDays(days - 1).datesUntil(end.plusDays(1)).forEach(date ->
+                batch.add((int) date.toEpochDay(), 1_000_000L + (date.toEpochDay() % 1000) * 100L));
+        rates = batch.build();
+    }
+
+    @Benchmark
+    public ExchangeRateDTO mapToDTO() {
+        return service.mapToDTO(exchangeRate);
+    }
+
+    @Benchmark
+    public List<ExchangeRate> toEntities() {
+        return service.toExchangeRates(rates);
+    }
+
+    private static Currency currency(String id, String code, String name) {
+        Currency currency = new Currency();
+        currency.setId(id);
+        currency.setCode(code);
+        currency.setName(name);
+        return currency;
+    }
+}
@@ -0,0 +1,96 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.CurrencyExchangeApplication;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import com.cathaybank.currencyexchange.service.ExchangeRateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getLatestExchangeRate} against an embedded H2 database holding daily rates for all 90 pairs of the seeded
+ * currencies, served from the snapshot and straight from the repository, plus the query that rebuilds the snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LatestRateLookupBenchmark {
+
+    // Maps row number X to one of the 90 ordered pairs of the ten seeded currencies and to day X / 90
+    private static final String GENERATE_ROWS_SQL =
+            "INSERT INTO exchange_rate (id, base_currency_id, quote_currency_id, rate, date, source) " +
+            "SELECT CAST(RANDOM_UUID() AS VARCHAR(36)), " +
+            "'550e8400-e29b-41d4-a716-44665544000' || (MOD(X, 90) / 9), " +
+            "'550e8400-e29b-41d4-a716-44665544000' || MOD(MOD(X, 90) / 9 + 1 + MOD(MOD(X, 90), 9), 10), " +
+            "1 + MOD(X, 1000) / 10000.0, " +
+            "DATEADD('DAY', -(X / 90), TIMESTAMP '2024-01-01 12:00:00'), " +
+            "'BENCHMARK' " +
+            "FROM SYSTEM_RANGE(0, ? - 1)";
+
+    // Ten years of daily rates for every pair
+    @Param({"328500"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ExchangeRateService exchangeRateService;
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CurrencyExchangeApplication.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they override application.properties, whose DEBUG logging would dominate
+                .run("--spring.datasource.url=jdbc:h2:mem:jmhdb;QUERY_CACHE_SIZE=0",
+                        "--scheduler.exchange-rate.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.cathaybank=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        context.getBean(JdbcTemplate.class).update(GENERATE_ROWS_SQL, rows);
+        context.getBean(JdbcTemplate.class).execute("ANALYZE");
+
+        exchangeRateService = context.getBean(ExchangeRateService.class);
+        exchangeRateRepository = context.getBean(ExchangeRateRepository.class);
+        context.getBean(ExchangeRateServiceImpl.class).refreshLatestRateSnapshot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExchangeRateDTO latestFromSnapshot() {
+        return exchangeRateService.getLatestExchangeRate("USD", "EUR");
+    }
+
+    @Benchmark
+    public ExchangeRateDTO latestFromRepository() {
+        return exchangeRateRepository.findLatestByBaseCurrencyCodeAndQuoteCurrencyCode("USD", "EUR").orElseThrow();
+    }
+
+    /**
+     * The query behind every full snapshot rebuild.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<ExchangeRateDTO> latestForAllPairs() {
+        return exchangeRateRepository.findLatestForAllPairs();
+    }
+}
@@ -0,0 +1,82 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.dto.OandaApiResponse;
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses an OANDA chart response of {@code days} daily quotes: bound to {@link OandaApiResponse} and converted per
+ * day, as the client used to, against streamed through {@link OandaChartParser} in 8 KB buffers. Run with
+ * {@code -prof gc} and divide {@code gc.alloc.rate.norm} by {@code days} for the allocation per data point.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OandaChartParserBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"365", "3650"})
+    private int days;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        LocalDate end = LocalDate.of(2023, 12, 31);
+        StringBuilder json = new StringBuilder("{\"meta\":{\"base\":\"USD\",\"quote\":\"EUR\",\"data_type\":\"chart\"},"
+                + "\"data\":{");
+        end.minusDays(days - 1).datesUntil(end.plusDays(1)).forEach(date -> {
+            String close = String.valueOf(1 + (date.toEpochDay() % 1000) / 10_000.0);
+            json.append('"').append(date).append("\":[{\"date\":\"").append(date).append("\",\"open\":\"")
+                    .append(close).append("\",\"high\":\"").append(close).append("\",\"low\":\"").append(close)
+                    .append("\",\"close\":\"").append(close).append("\"}],");
+        });
+        json.setCharAt(json.length() - 1, '}');
+        body = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public RateBatch tree() throws IOException {
+        OandaApiResponse response = objectMapper.readValue(body, OandaApiResponse.class);
+        RateBatch.Builder batch = RateBatch.builder("USD", "EUR", "OANDA", response.getData().size());
+        for (Map.Entry<String, List<OandaApiResponse.QuoteData>> entry : response.getData().entrySet()) {
+            BigDecimal close = new BigDecimal(entry.getValue().get(0).getClose());
+            batch.add((int) LocalDate.parse(entry.getKey()).toEpochDay(),
+                    close.movePointRight(RateBatch.SCALE).longValue());
+        }
+        return batch.build();
+    }
+
+    @Benchmark
+    public RateBatch streaming() {
+        List<DataBuffer> chunks = new ArrayList<>(body.length / CHUNK_SIZE + 1);
+        for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+            chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    ByteBuffer.wrap(body, offset, Math.min(CHUNK_SIZE, body.length - offset))));
+        }
+        return OandaChartParser.parse(Flux.fromIterable(chunks), "USD", "EUR", "OANDA").block();
+    }
+}
@@ -0,0 +1,115 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.cache.LatestRateSnapshot;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans one committed rate out to {@code subscribers} open streams, rotating through the 90 pairs of the ten seeded
+ * currencies: every subscriber on every pair, every subscriber on one pair of its own, and every subscriber on
+ * every pair but never asking for events, as a connection stuck writing would, so updates are coalesced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateStreamFanOutBenchmark {
+
+    private static final String[] CODES = {"USD", "EUR", "JPY", "GBP", "AUD", "CAD", "CHF", "CNY", "HKD", "TWD"};
+
+    @Param({"10000"})
+    private int subscribers;
+
+    @Param({"everyPair", "onePair", "stalled"})
+    private String subscription;
+
+    private final List<CountingSubscriber> streams = new ArrayList<>();
+    private final List<String[]> pairs = new ArrayList<>();
+    private RateStreamServiceImpl rateStreamService;
+    private int next;
+    private LocalDateTime date = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rateStreamService = new RateStreamServiceImpl(new ObjectMapper().findAndRegisterModules(),
+                new LatestRateSnapshot(null, meterRegistry), meterRegistry);
+        for (String base : CODES) {
+            for (String quote : CODES) {
+                if (!base.equals(quote)) {
+                    pairs.add(new String[]{base, quote});
+                }
+            }
+        }
+        for (int i = 0; i < subscribers; i++) {
+            String[] pair = pairs.get(i % pairs.size());
+            CountingSubscriber stream = new CountingSubscriber(!"stalled".equals(subscription));
+            rateStreamService.subscribe("onePair".equals(subscription) ? List.of(pair[0] + "/" + pair[1]) : List.of())
+                    .subscribe(stream);
+            streams.add(stream);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        streams.forEach(BaseSubscriber::dispose);
+    }
+
+    @Benchmark
+    public int publish() {
+        String[] pair = pairs.get(next);
+        if (++next == pairs.size()) {
+            next = 0;
+            date = date.plusDays(1);
+        }
+        rateStreamService.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of(ExchangeRateDTO.builder()
+                .baseCurrencyCode(pair[0])
+                .quoteCurrencyCode(pair[1])
+                .rate(new BigDecimal("1.234567"))
+                .date(date)
+                .source("OANDA")
+                .build())));
+        return streams.get(0).received;
+    }
+
+    private static final class CountingSubscriber extends BaseSubscriber<ServerSentEvent<String>> {
+
+        private final boolean reading;
+        private int received;
+
+        private CountingSubscriber(boolean reading) {
+            this.reading = reading;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (reading) {
+                subscription.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<String> event) {
+            received++;
+        }
+    }
+}
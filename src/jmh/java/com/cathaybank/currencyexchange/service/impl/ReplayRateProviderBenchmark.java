@@ -0,0 +1,75 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reads from a memory-mapped CSV of {@code years} of daily USD/EUR rates: one sync window of 180 days at a random
+ * point in the file, and the whole file at once. Rows per second is {@code size / score}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReplayRateProviderBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(1990, 1, 1);
+
+    @Param({"10", "100"})
+    private int years;
+
+    private Path directory;
+    private ReplayRateProvider provider;
+    private long lastDay;
+    private long windowStart;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("replay-benchmark");
+        LocalDate end = FIRST_DAY.plusYears(years);
+        try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve("USD_EUR.csv"))) {
+            writer.write("date,rate\n");
+            for (LocalDate date = FIRST_DAY; date.isBefore(end); date = date.plusDays(1)) {
+                writer.write(date + "," + (1 + (date.toEpochDay() % 1000) / 10_000.0) + "\n");
+            }
+        }
+        provider = new ReplayRateProvider(directory.toString(), "REPLAY");
+        lastDay = end.toEpochDay() - 1;
+        windowStart = FIRST_DAY.toEpochDay();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public RateBatch window() throws IOException {
+        // Walk the windows through the file so every read has to search for its start
+        windowStart = windowStart + 180 > lastDay ? FIRST_DAY.toEpochDay() : windowStart + 997;
+        return provider.read("USD", "EUR", windowStart, windowStart + 179);
+    }
+
+    @Benchmark
+    public RateBatch wholeFile() throws IOException {
+        return provider.read("USD", "EUR", FIRST_DAY.toEpochDay(), lastDay);
+    }
+}
@@ -0,0 +1,69 @@
+package com.cathaybank.currencyexchange.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.helpers.NOPAppender;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of {@link AccessLogFilter} around a no-op handler. Read gc.alloc.rate.norm for the bytes
+ * each request allocates: {@code off} is the access logger disabled, {@code unsampled} is a request that loses the
+ * sampling draw and {@code logged} writes a full event to an appender that discards it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccessLogFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"off", "unsampled", "logged"})
+    private String mode;
+
+    private AccessLogFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        filter = new AccessLogFilter();
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "sampleRate", "unsampled".equals(mode) ? 0.0 : 1.0);
+        ReflectionTestUtils.setField(filter, "includeBody", false);
+        ReflectionTestUtils.setField(filter, "maxBodyLength", 2048);
+
+        Logger accessLogger = (Logger) LoggerFactory.getLogger("com.cathaybank.currencyexchange.access");
+        NOPAppender<ILoggingEvent> discard = new NOPAppender<>();
+        discard.setContext(accessLogger.getLoggerContext());
+        discard.start();
+        accessLogger.detachAndStopAllAppenders();
+        accessLogger.addAppender(discard);
+        accessLogger.setAdditive(false);
+        accessLogger.setLevel("off".equals(mode) ? Level.OFF : Level.INFO);
+
+        request = new MockHttpServletRequest("GET", "/api/exchange-rates/latest");
+        request.setQueryString("baseCurrency=USD&quoteCurrency=EUR");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request() throws Exception {
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+}
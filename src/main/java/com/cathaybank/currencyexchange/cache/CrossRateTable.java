@@ -0,0 +1,193 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Derives every currency pair that is not stored directly from the stored latest rates.
+ * <p>
+ * A missing pair A/B is answered by inverting B/A, or by crossing through the pivot P whose legs A/P and P/B
+ * are the freshest, preferring stored legs over inverted ones. The result is a complete all-pairs table, so a
+ * derived lookup is the same map read as a direct one. The provenance is kept in {@code source}:
+ * {@code INVERSE:<stored source>} or {@code CROSS:<pivot>}. A stored rate of zero has no inverse and is never
+ * used as an inverted leg.
+ * <p>
+ * Building the table scans every pivot for every pair. A change to one stored pair can only alter the pairs quoting
+ * one of its two currencies, so {@link #update} derives those rows again and copies the rest.
+ */
+final class CrossRateTable {
+
+    static final String INVERSE_SOURCE_PREFIX = "INVERSE:";
+    static final String CROSS_SOURCE_PREFIX = "CROSS:";
+
+    // Stored rates are DECIMAL(19, 6); intermediate results keep more digits so legs are rounded only once
+    private static final MathContext INTERMEDIATE = MathContext.DECIMAL64;
+    private static final int RATE_SCALE = 6;
+
+    private CrossRateTable() {
+    }
+
+    /**
+     * @param direct the stored latest rate per pair, keyed by {@link LatestRateSnapshot#pairKey}
+     * @return the direct rates plus a derived rate for every other pair of currencies that can be reached
+     */
+    static Map<String, ExchangeRateDTO> build(Map<String, ExchangeRateDTO> direct) {
+        Map<String, String> names = names(direct);
+        Map<String, ExchangeRateDTO> rates = new HashMap<>(direct);
+        for (String base : names.keySet()) {
+            for (String quote : names.keySet()) {
+                put(rates, direct, names, base, quote);
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * Same result as {@link #build} of {@code direct}, reusing {@code rates}, the table of the stored rates before
+     * {@code changed} were merged into them.
+     *
+     * @param rates   the previous table; it is copied, not modified
+     * @param direct  the stored latest rates with {@code changed} merged in
+     * @param changed the stored rates written since {@code rates} was built
+     */
+    static Map<String, ExchangeRateDTO> update(Map<String, ExchangeRateDTO> rates, Map<String, ExchangeRateDTO> direct,
+                                               Collection<ExchangeRateDTO> changed) {
+        Set<String> currencies = new HashSet<>();
+        changed.forEach(rate -> {
+            currencies.add(rate.getBaseCurrencyCode());
+            currencies.add(rate.getQuoteCurrencyCode());
+        });
+        Map<String, String> names = names(direct);
+        Map<String, ExchangeRateDTO> updated = new HashMap<>(rates);
+        for (String currency : currencies) {
+            for (String other : names.keySet()) {
+                updated.remove(LatestRateSnapshot.pairKey(currency, other));
+                updated.remove(LatestRateSnapshot.pairKey(other, currency));
+                put(updated, direct, names, currency, other);
+                put(updated, direct, names, other, currency);
+            }
+        }
+        return updated;
+    }
+
+    private static Map<String, String> names(Map<String, ExchangeRateDTO> direct) {
+        Map<String, String> names = new TreeMap<>();
+        direct.values().forEach(rate -> {
+            names.put(rate.getBaseCurrencyCode(), rate.getBaseCurrencyName());
+            names.put(rate.getQuoteCurrencyCode(), rate.getQuoteCurrencyName());
+        });
+        return names;
+    }
+
+    // The stored rate of the pair, or else its derived rate when it can be reached
+    private static void put(Map<String, ExchangeRateDTO> rates, Map<String, ExchangeRateDTO> direct,
+                            Map<String, String> names, String base, String quote) {
+        if (base.equals(quote)) {
+            return;
+        }
+        String key = LatestRateSnapshot.pairKey(base, quote);
+        ExchangeRateDTO rate = direct.get(key);
+        if (rate == null) {
+            rate = derive(direct, names, base, quote);
+        }
+        if (rate != null) {
+            rates.put(key, rate);
+        }
+    }
+
+    private static ExchangeRateDTO derive(Map<String, ExchangeRateDTO> direct, Map<String, String> names,
+                                          String base, String quote) {
+        ExchangeRateDTO reverse = direct.get(LatestRateSnapshot.pairKey(quote, base));
+        if (reverse != null && reverse.getRate().signum() != 0) {
+            return derivedRate(names, base, quote, invert(reverse.getRate()), reverse.getDate(),
+                    INVERSE_SOURCE_PREFIX + reverse.getSource());
+        }
+
+        Leg bestFirst = null;
+        Leg bestSecond = null;
+        String bestPivot = null;
+        for (String pivot : names.keySet()) {
+            if (pivot.equals(base) || pivot.equals(quote)) {
+                continue;
+            }
+            Leg first = leg(direct, base, pivot);
+            Leg second = leg(direct, pivot, quote);
+            if (first == null || second == null) {
+                continue;
+            }
+            if (bestPivot == null || isBetter(first, second, bestFirst, bestSecond)) {
+                bestFirst = first;
+                bestSecond = second;
+                bestPivot = pivot;
+            }
+        }
+        if (bestPivot == null) {
+            return null;
+        }
+
+        BigDecimal rate = bestFirst.rate.multiply(bestSecond.rate, INTERMEDIATE);
+        LocalDateTime date = older(bestFirst.date, bestSecond.date);
+        return derivedRate(names, base, quote, rate, date, CROSS_SOURCE_PREFIX + bestPivot);
+    }
+
+    /**
+     * A cross is only as fresh as its older leg; on a tie, fewer inverted legs means less rounding.
+     */
+    private static boolean isBetter(Leg first, Leg second, Leg bestFirst, Leg bestSecond) {
+        int byDate = older(first.date, second.date).compareTo(older(bestFirst.date, bestSecond.date));
+        if (byDate != 0) {
+            return byDate > 0;
+        }
+        return first.inversions() + second.inversions() < bestFirst.inversions() + bestSecond.inversions();
+    }
+
+    private static Leg leg(Map<String, ExchangeRateDTO> direct, String base, String quote) {
+        ExchangeRateDTO stored = direct.get(LatestRateSnapshot.pairKey(base, quote));
+        if (stored != null) {
+            return new Leg(stored.getRate(), stored.getDate(), false);
+        }
+        ExchangeRateDTO reverse = direct.get(LatestRateSnapshot.pairKey(quote, base));
+        if (reverse != null && reverse.getRate().signum() != 0) {
+            return new Leg(invert(reverse.getRate()), reverse.getDate(), true);
+        }
+        return null;
+    }
+
+    private static BigDecimal invert(BigDecimal rate) {
+        return BigDecimal.ONE.divide(rate, INTERMEDIATE);
+    }
+
+    private static LocalDateTime older(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static ExchangeRateDTO derivedRate(Map<String, String> names, String base, String quote,
+                                               BigDecimal rate, LocalDateTime date, String source) {
+        return ExchangeRateDTO.builder()
+                .baseCurrencyCode(base)
+                .baseCurrencyName(names.get(base))
+                .quoteCurrencyCode(quote)
+                .quoteCurrencyName(names.get(quote))
+                .rate(rate.setScale(RATE_SCALE, RoundingMode.HALF_UP))
+                .date(date)
+                .source(source)
+                .build();
+    }
+
+    private record Leg(BigDecimal rate, LocalDateTime date, boolean inverted) {
+
+        int inversions() {
+            return inverted ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
+import com.cathaybank.currencyexchange.repository.CurrencyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-process copy of the currency table, which holds a handful of rows that rarely change.
+ * <p>
+ * Like {@link LatestRateSnapshot}, readers dereference a single volatile field holding immutable maps, and every
+ * committed create, update or delete rebuilds the maps from the database and swaps them in as a whole. The cache
+ * is the authority for reads: a code or id it does not hold is treated as unknown without asking the database.
+ * The cached entities are shared between callers and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class CurrencyCache {
+
+    private final CurrencyRepository currencyRepository;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile Catalog catalog;
+
+    public CurrencyCache(CurrencyRepository currencyRepository, MeterRegistry meterRegistry) {
+        this.currencyRepository = currencyRepository;
+        this.hits = Counter.builder("currency.cache.lookups")
+                .description("Currency lookups answered by the in-process cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("currency.cache.lookups")
+                .description("Currency lookups answered by the in-process cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * All currencies ordered by code.
+     */
+    public List<Currency> findAll() {
+        hits.increment();
+        return catalog().ordered;
+    }
+
+    public Optional<Currency> findById(String id) {
+        return record(catalog().byId.get(id));
+    }
+
+    public Optional<Currency> findByCode(String code) {
+        return record(catalog().byCode.get(code));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        List<Currency> currencies = currencyRepository.findAllByOrderByCodeAsc();
+        Map<String, Currency> byCode = new HashMap<>();
+        Map<String, Currency> byId = new HashMap<>();
+        currencies.forEach(currency -> {
+            byCode.put(currency.getCode(), currency);
+            byId.put(currency.getId(), currency);
+        });
+        catalog = new Catalog(List.copyOf(currencies), Map.copyOf(byCode), Map.copyOf(byId));
+        log.info("Currency cache loaded with {} currencies", currencies.size());
+    }
+
+    // Ahead of DataVersion, which must not move on before this cache holds the change
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCurrenciesChanged(CurrenciesChangedEvent event) {
+        log.debug("Currency {} changed, reloading currency cache", event.getCurrencyId());
+        reload();
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            // Lookups that arrive before the startup load trigger it themselves
+            synchronized (this) {
+                if (catalog == null) {
+                    reload();
+                }
+                current = catalog;
+            }
+        }
+        return current;
+    }
+
+    private Optional<Currency> record(Currency currency) {
+        (currency != null ? hits : misses).increment();
+        return Optional.ofNullable(currency);
+    }
+
+    private record Catalog(List<Currency> ordered, Map<String, Currency> byCode, Map<String, Currency> byId) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Monotonic version of the currency and exchange rate data, which backs the {@code ETag} and {@code Last-Modified}
+ * headers of the read endpoints.
+ * <p>
+ * Every committed sync, rate create and currency create, update or delete moves the version on. The bump runs
+ * after the in-process caches have taken the change in, so a new version never describes old data. ETags carry
+ * the process start time as well, so a restart never hands out an ETag already used for other data.
+ */
+@Component
+@Slf4j
+public class DataVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private volatile Stamp current = new Stamp(0, wholeSeconds(System.currentTimeMillis()));
+
+    public Stamp current() {
+        return current;
+    }
+
+    /**
+     * Moves the version on. Last-Modified moves at least a second with every version, since If-Modified-Since only
+     * has whole seconds: commits in the same second, such as the per-pair commits of a sync, must not share one. In
+     * a burst of commits it runs ahead of the clock until the commits stop and the clock catches up.
+     */
+    public synchronized void bump() {
+        Stamp previous = current;
+        current = new Stamp(previous.version + 1,
+                Math.max(previous.lastModifiedMillis + 1000, wholeSeconds(System.currentTimeMillis())));
+        log.debug("Data version moved to {}", current.version);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onExchangeRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCurrenciesChanged(CurrenciesChangedEvent event) {
+        bump();
+    }
+
+    // HTTP dates have whole seconds, and If-Modified-Since is compared against what was sent
+    private static long wholeSeconds(long millis) {
+        return millis - millis % 1000;
+    }
+
+    public final class Stamp {
+
+        private final long version;
+        private final long lastModifiedMillis;
+
+        private Stamp(long version, long lastModifiedMillis) {
+            this.version = version;
+            this.lastModifiedMillis = lastModifiedMillis;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getLastModifiedMillis() {
+            return lastModifiedMillis;
+        }
+
+        /**
+         * Weak ETag, such as {@code W/"lz3k1q2a-42"}. It names a version of the data rather than the bytes of one
+         * response, which differ with and without compression; a strong ETag would also stop the server from
+         * compressing the response.
+         */
+        public String getETag() {
+            return "W/\"" + epoch + "-" + version + "\"";
+        }
+
+        /**
+         * ETag of one representation of the data, such as {@code W/"lz3k1q2a-42-cbor"}, for responses whose
+         * encoding depends on the request's {@code Accept}.
+         */
+        public String getETag(String representation) {
+            return "W/\"" + epoch + "-" + version + "-" + representation + "\"";
+        }
+    }
+}
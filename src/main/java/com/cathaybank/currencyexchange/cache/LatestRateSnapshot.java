@@ -0,0 +1,200 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Copy-on-write snapshot of the latest exchange rate per currency pair.
+ * <p>
+ * Readers dereference a single volatile field and never lock or touch the database. Writers build a new
+ * immutable map and swap it in, so a reader always sees either the old or the new snapshot as a whole.
+ * The cached DTOs are shared between callers and must be treated as read-only.
+ * <p>
+ * Every replace also precomputes the pairs that are not stored, via {@link CrossRateTable}, and every merge updates
+ * them, so any pair of the currencies present in the snapshot is answered with a single map read.
+ * <p>
+ * The cached DTOs carry currency codes and names, so every committed currency change reloads the snapshot.
+ */
+@Component
+@Slf4j
+public class LatestRateSnapshot {
+
+    private final ExchangeRateRepository exchangeRateRepository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Rates committed while load() is querying, which its result may not include; null when no load is running
+    private List<ExchangeRateDTO> committedDuringLoad;
+
+    public LatestRateSnapshot(ExchangeRateRepository exchangeRateRepository, MeterRegistry meterRegistry) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        TimeGauge.builder("exchange.rate.snapshot.age", this, TimeUnit.MILLISECONDS, LatestRateSnapshot::ageMillis)
+                .description("Time since the latest exchange rate snapshot was last rebuilt")
+                .register(meterRegistry);
+    }
+
+    public boolean isLoaded() {
+        return snapshot.builtAtMillis > 0;
+    }
+
+    public Optional<ExchangeRateDTO> find(String baseCode, String quoteCode) {
+        return Optional.ofNullable(snapshot.rates.get(pairKey(baseCode, quoteCode)));
+    }
+
+    /**
+     * The stored latest rate of every pair, without the derived ones.
+     */
+    public Collection<ExchangeRateDTO> findAllStored() {
+        return snapshot.direct.values();
+    }
+
+    /**
+     * Number of pairs backed by a stored rate.
+     */
+    public int size() {
+        return snapshot.direct.size();
+    }
+
+    /**
+     * Number of pairs answered, stored and derived.
+     */
+    public int pairCount() {
+        return snapshot.rates.size();
+    }
+
+    /**
+     * Replaces the whole snapshot, typically with the latest rate of every pair read from the database.
+     */
+    public synchronized void replace(Collection<ExchangeRateDTO> latestRates) {
+        Map<String, ExchangeRateDTO> rates = new HashMap<>();
+        latestRates.forEach(rate -> putIfNewer(rates, rate));
+        snapshot = new Snapshot(rates);
+        log.info("Latest exchange rate snapshot rebuilt with {} stored and {} derived pairs",
+                snapshot.direct.size(), snapshot.rates.size() - snapshot.direct.size());
+    }
+
+    /**
+     * Replaces the whole snapshot with the result of {@code query}, typically the latest rate of every pair read from
+     * the database. Rates committed while the query runs may be missing from its result, so they are held back and
+     * merged into it before it is published, rather than lost or overwritten by older rates.
+     */
+    public void load(Supplier<? extends Collection<ExchangeRateDTO>> query) {
+        synchronized (this) {
+            committedDuringLoad = new ArrayList<>();
+        }
+        Collection<ExchangeRateDTO> latestRates;
+        try {
+            latestRates = query.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                committedDuringLoad = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            List<ExchangeRateDTO> rates = new ArrayList<>(latestRates);
+            rates.addAll(committedDuringLoad);
+            committedDuringLoad = null;
+            replace(rates);
+        }
+    }
+
+    /**
+     * Merges freshly written rates into a copy of the current snapshot, keeping the newest rate per pair. Only the
+     * derived pairs quoting a currency of the merged rates are derived again.
+     */
+    public synchronized void merge(Collection<ExchangeRateDTO> newRates) {
+        Map<String, ExchangeRateDTO> rates = new HashMap<>(snapshot.direct);
+        newRates.forEach(rate -> putIfNewer(rates, rate));
+        snapshot = new Snapshot(rates, CrossRateTable.update(snapshot.rates, rates, newRates));
+        log.debug("Latest exchange rate snapshot merged {} rates", newRates.size());
+    }
+
+    // Ahead of DataVersion, which must not move on before this cache holds the change
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onExchangeRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        if (event.getExchangeRates().isEmpty()) {
+            return;
+        }
+        if (committedDuringLoad != null) {
+            committedDuringLoad.addAll(event.getExchangeRates());
+        }
+        // Until the initial load has run the database is the source of truth, so there is nothing to merge into
+        if (isLoaded()) {
+            merge(event.getExchangeRates());
+        }
+    }
+
+    // Ahead of DataVersion and the response body cache, which rebuild from this snapshot
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCurrenciesChanged(CurrenciesChangedEvent event) {
+        log.debug("Currency {} changed, reloading latest exchange rate snapshot", event.getCurrencyId());
+        reload();
+    }
+
+    /**
+     * Loads the latest rate of every pair from the database.
+     */
+    public void reload() {
+        load(exchangeRateRepository::findLatestForAllPairs);
+    }
+
+    public static String pairKey(String baseCode, String quoteCode) {
+        return baseCode + "/" + quoteCode;
+    }
+
+    private double ageMillis() {
+        long builtAt = snapshot.builtAtMillis;
+        return builtAt > 0 ? System.currentTimeMillis() - builtAt : Double.NaN;
+    }
+
+    private static void putIfNewer(Map<String, ExchangeRateDTO> rates, ExchangeRateDTO rate) {
+        rates.merge(pairKey(rate.getBaseCurrencyCode(), rate.getQuoteCurrencyCode()), rate,
+                (current, candidate) -> candidate.getDate().isBefore(current.getDate()) ? current : candidate);
+    }
+
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), Collections.emptyMap(), 0L);
+
+        private final Map<String, ExchangeRateDTO> direct;
+        private final Map<String, ExchangeRateDTO> rates;
+        private final long builtAtMillis;
+
+        private Snapshot(Map<String, ExchangeRateDTO> direct) {
+            this(direct, CrossRateTable.build(direct));
+        }
+
+        private Snapshot(Map<String, ExchangeRateDTO> direct, Map<String, ExchangeRateDTO> rates) {
+            this(Collections.unmodifiableMap(direct), Collections.unmodifiableMap(rates), System.currentTimeMillis());
+        }
+
+        private Snapshot(Map<String, ExchangeRateDTO> direct, Map<String, ExchangeRateDTO> rates,
+                         long builtAtMillis) {
+            this.direct = direct;
+            this.rates = rates;
+            this.builtAtMillis = builtAtMillis;
+        }
+    }
+}
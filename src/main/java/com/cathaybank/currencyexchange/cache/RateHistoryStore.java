@@ -0,0 +1,518 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Read-optimized copy of the rate history, one column file per field and pair, memory-mapped so range reads touch
+ * neither the database nor the heap.
+ * <p>
+ * A pair is held as four append-only files in {@code rate-history.directory}: {@code .dates} with the date of each
+ * rate in microseconds since the epoch, {@code .rates} with the rate as a long with {@link RateBatch#SCALE}
+ * decimals, {@code .sources} with one byte per rate indexing the pair's sources, and {@code .ids} with the row id in
+ * {@value #ID_LENGTH} bytes. Dates are strictly increasing, as the unique index on pair and date makes them, so a
+ * range is a binary search for its first date and a sequential scan from there, and only its pages are read.
+ * <p>
+ * The database stays the source of truth. A pair is built from it on its first read after startup, and committed
+ * syncs and creates are appended from {@link ExchangeRatesUpdatedEvent}; a change that cannot be appended, such as
+ * a rate dated before the last one, drops the pair so its next read builds it again. A rebuild writes new files
+ * rather than rewriting the old ones, since readers may still be scanning their mapping. A pair holding a row the
+ * columns cannot represent is left to the database, counted in {@code rate.history.unsupported.pairs}, and tried
+ * again when rates or currencies next change.
+ */
+@Component
+@Slf4j
+public class RateHistoryStore implements DisposableBean {
+
+    // exchange_rate.id is a VARCHAR(36); shorter ids are padded with zero bytes
+    private static final int ID_LENGTH = 36;
+    private static final LocalDateTime EARLIEST = LocalDate.of(1, 1, 1).atStartOfDay();
+    private static final LocalDateTime LATEST = LocalDate.of(9999, 12, 31).atTime(23, 59, 59);
+    private static final String[] COLUMNS = {".dates", ".rates", ".sources", ".ids"};
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final TransactionTemplate readOnly;
+    private final boolean enabled;
+    private final boolean temporaryDirectory;
+    private final Path directory;
+    private final Map<String, PairHistory> pairs = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+    private final Counter databaseReads;
+
+    public RateHistoryStore(ExchangeRateRepository exchangeRateRepository,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${rate-history.enabled:true}") boolean enabled,
+                            @Value("${rate-history.directory:}") String directory) throws IOException {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.enabled = enabled;
+        this.databaseReads = Counter.builder("rate.history.database.reads")
+                .description("Rate pages read from the database because their pair is not held by the store")
+                .register(meterRegistry);
+        Gauge.builder("rate.history.unsupported.pairs", pairs,
+                        all -> all.values().stream().filter(pair -> pair.series == Series.UNSUPPORTED).count())
+                .description("Pairs holding rates the rate history store cannot represent")
+                .register(meterRegistry);
+        this.temporaryDirectory = directory.isBlank();
+        if (!enabled) {
+            this.directory = null;
+            return;
+        }
+        this.directory = temporaryDirectory
+                ? Files.createTempDirectory("rate-history-")
+                : Files.createDirectories(Paths.get(directory));
+        // Files from an earlier run may not match the database any more; pairs are built again on demand
+        deleteColumnFiles();
+        log.info("Rate history store in {}", this.directory.toAbsolutePath());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Up to {@code limit} rates of the pair dated from {@code startDate} (or after {@code afterDate}, when given)
+     * through {@code endDate}, in date order, like {@link ExchangeRateRepository#findPage}. Empty when the store is
+     * disabled or the pair is left to the database.
+     */
+    public Optional<List<ExchangeRateDTO>> findPage(Currency baseCurrency, Currency quoteCurrency,
+                                                    LocalDateTime startDate, LocalDateTime afterDate,
+                                                    LocalDateTime endDate, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Series series = pair(baseCurrency.getCode(), quoteCurrency.getCode()).series();
+        if (series == Series.UNSUPPORTED) {
+            databaseReads.increment();
+            return Optional.empty();
+        }
+
+        // Sub-microsecond bounds cannot match a stored date, so they round inwards
+        long first = afterDate != null ? micros(afterDate) + 1
+                : micros(startDate) + (startDate.getNano() % 1000 > 0 ? 1 : 0);
+        long last = micros(endDate);
+        int from = series.indexOf(first);
+        List<ExchangeRateDTO> rates = new ArrayList<>(Math.min(limit, Math.max(series.indexOf(last + 1) - from, 0)));
+        byte[] id = new byte[ID_LENGTH];
+        for (int i = from; i < series.size && rates.size() < limit; i++) {
+            long date = series.dates.get(i);
+            if (date > last) {
+                break;
+            }
+            series.ids.get(i * ID_LENGTH, id);
+            rates.add(ExchangeRateDTO.builder()
+                    .id(id(id))
+                    .baseCurrencyCode(baseCurrency.getCode())
+                    .baseCurrencyName(baseCurrency.getName())
+                    .quoteCurrencyCode(quoteCurrency.getCode())
+                    .quoteCurrencyName(quoteCurrency.getName())
+                    .rate(BigDecimal.valueOf(series.rates.get(i), RateBatch.SCALE))
+                    .date(dateTime(date))
+                    .source(series.sourceNames.get(series.sources.get(i)))
+                    .build());
+        }
+        return Optional.of(rates);
+    }
+
+    // Ahead of DataVersion, which must not move on before the store holds the change
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onExchangeRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, List<ExchangeRateDTO>> byPair = new HashMap<>();
+        event.getExchangeRates().forEach(rate -> byPair.computeIfAbsent(
+                LatestRateSnapshot.pairKey(rate.getBaseCurrencyCode(), rate.getQuoteCurrencyCode()),
+                key -> new ArrayList<>()).add(rate));
+        byPair.forEach((key, rates) -> {
+            PairHistory pair = pairs.get(key);
+            if (pair != null) {
+                pair.append(rates);
+            }
+        });
+    }
+
+    // A currency code may have changed, and pairs are keyed by code
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCurrenciesChanged(CurrenciesChangedEvent event) {
+        pairs.values().forEach(PairHistory::drop);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (enabled && temporaryDirectory) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private PairHistory pair(String baseCode, String quoteCode) {
+        return pairs.computeIfAbsent(LatestRateSnapshot.pairKey(baseCode, quoteCode),
+                key -> new PairHistory(baseCode, quoteCode));
+    }
+
+    private void deleteColumnFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                for (String column : COLUMNS) {
+                    if (name.endsWith(column)) {
+                        Files.delete(file);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    // Microseconds are the precision of exchange_rate.date; finer digits are cut off
+    private static long micros(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + date.getNano() / 1000;
+    }
+
+    private static LocalDateTime dateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC);
+    }
+
+    private static String id(byte[] id) {
+        int length = ID_LENGTH;
+        while (length > 0 && id[length - 1] == 0) {
+            length--;
+        }
+        return new String(id, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * One pair's files. Reads go through the volatile {@link Series} without locking; builds and appends hold the
+     * pair's lock, and a build holds it from before its query until the new series is in place, so a commit is
+     * either seen by the query or appended after it.
+     */
+    private final class PairHistory {
+
+        private final String baseCode;
+        private final String quoteCode;
+        private volatile Series series;
+
+        private PairHistory(String baseCode, String quoteCode) {
+            this.baseCode = baseCode;
+            this.quoteCode = quoteCode;
+        }
+
+        Series series() {
+            Series current = series;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                if (series == null) {
+                    series = build();
+                }
+                return series;
+            }
+        }
+
+        synchronized void drop() {
+            Series current = series;
+            series = null;
+            // Unlinking leaves the old mapping readable for scans still running on it
+            if (current != null && current != Series.UNSUPPORTED) {
+                delete(current.files);
+            }
+        }
+
+        synchronized void append(List<ExchangeRateDTO> rates) {
+            Series current = series;
+            if (current == Series.UNSUPPORTED) {
+                // Built again on its next read, so a pair is not left to the database until a restart
+                series = null;
+                return;
+            }
+            if (current == null) {
+                return;
+            }
+            rates.sort(Comparator.comparing(ExchangeRateDTO::getDate));
+            List<String> sourceNames = new ArrayList<>(current.sourceNames);
+            ColumnWriter writer = null;
+            try {
+                long lastDate = current.size == 0 ? Long.MIN_VALUE : current.dates.get(current.size - 1);
+                int appended = 0;
+                for (ExchangeRateDTO rate : rates) {
+                    Row row = Row.of(rate, sourceNames);
+                    if (row == null || row.date <= lastDate) {
+                        // Not representable, or dated before the end of the column: start over from the database
+                        if (row == null || !current.holds(row, sourceNames)) {
+                            log.debug("Rate history of {}/{} cannot take {}; rebuilding on next read",
+                                    baseCode, quoteCode, rate.getDate());
+                            drop();
+                            return;
+                        }
+                        continue;
+                    }
+                    if (writer == null) {
+                        writer = new ColumnWriter(current.files, StandardOpenOption.APPEND);
+                    }
+                    writer.write(row);
+                    lastDate = row.date;
+                    appended++;
+                }
+                if (writer != null) {
+                    writer.close();
+                    series = Series.map(current.files, current.size + appended, sourceNames);
+                }
+            } catch (IOException e) {
+                log.warn("Error appending to the rate history of {}/{}: {}", baseCode, quoteCode, e.getMessage());
+                drop();
+            }
+        }
+
+        private Series build() {
+            long start = System.nanoTime();
+            Path[] files = new Path[COLUMNS.length];
+            String prefix = baseCode + "_" + quoteCode + "." + generations.incrementAndGet();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                files[i] = directory.resolve(prefix + COLUMNS[i]);
+            }
+            List<String> sourceNames = new ArrayList<>();
+            Integer size = readOnly.execute(status -> {
+                try (ColumnWriter writer = new ColumnWriter(files, StandardOpenOption.CREATE_NEW);
+                     Stream<ExchangeRateDTO> rates = exchangeRateRepository
+                             .streamByBaseCurrencyCodeAndQuoteCurrencyCodeAndDateBetween(
+                                     baseCode, quoteCode, EARLIEST, LATEST)) {
+                    int count = 0;
+                    long lastDate = Long.MIN_VALUE;
+                    Iterator<ExchangeRateDTO> iterator = rates.iterator();
+                    while (iterator.hasNext()) {
+                        ExchangeRateDTO rate = iterator.next();
+                        Row row = Row.of(rate, sourceNames);
+                        if (row == null || row.date <= lastDate) {
+                            log.warn("Rate history of {}/{} cannot hold rate {} of {}; read from the database",
+                                    baseCode, quoteCode, rate.getId(), rate.getDate());
+                            return null;
+                        }
+                        writer.write(row);
+                        lastDate = row.date;
+                        count++;
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (size == null) {
+                delete(files);
+                return Series.UNSUPPORTED;
+            }
+            try {
+                Series built = Series.map(files, size, sourceNames);
+                log.info("Rate history of {}/{} built with {} rates in {} ms", baseCode, quoteCode, size,
+                        (System.nanoTime() - start) / 1_000_000);
+                return built;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void delete(Path[] files) {
+            for (Path file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.debug("Error deleting {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * A rate as it is stored: date in microseconds, scaled rate, source index and id bytes.
+     */
+    private record Row(long date, long scaledRate, byte source, byte[] id) {
+
+        // Null when the rate does not fit the columns: finer than a microsecond, too precise, too large, one source
+        // too many, or an id that is not up to 36 Latin-1 characters
+        static Row of(ExchangeRateDTO rate, List<String> sourceNames) {
+            if (rate.getDate().getNano() % 1000 != 0) {
+                return null;
+            }
+            String id = rate.getId();
+            if (id == null || id.isEmpty() || id.length() > ID_LENGTH
+                    || !StandardCharsets.ISO_8859_1.newEncoder().canEncode(id) || id.indexOf(0) >= 0) {
+                return null;
+            }
+            long scaledRate;
+            try {
+                scaledRate = rate.getRate().movePointRight(RateBatch.SCALE).longValueExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+            int source = sourceNames.indexOf(rate.getSource());
+            if (source < 0) {
+                if (sourceNames.size() > Byte.MAX_VALUE) {
+                    return null;
+                }
+                sourceNames.add(rate.getSource());
+                source = sourceNames.size() - 1;
+            }
+            return new Row(micros(rate.getDate()), scaledRate, (byte) source,
+                    Arrays.copyOf(id.getBytes(StandardCharsets.ISO_8859_1), ID_LENGTH));
+        }
+    }
+
+    private static final class ColumnWriter implements AutoCloseable {
+
+        private final DataOutputStream dates;
+        private final DataOutputStream rates;
+        private final DataOutputStream sources;
+        private final DataOutputStream ids;
+
+        ColumnWriter(Path[] files, OpenOption mode) throws IOException {
+            this.dates = open(files[0], mode);
+            this.rates = open(files[1], mode);
+            this.sources = open(files[2], mode);
+            this.ids = open(files[3], mode);
+        }
+
+        void write(Row row) throws IOException {
+            dates.writeLong(row.date);
+            rates.writeLong(row.scaledRate);
+            sources.writeByte(row.source);
+            ids.write(row.id);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (dates; rates; sources; ids) {
+                // Closing flushes all four
+            }
+        }
+
+        private static DataOutputStream open(Path file, OpenOption mode) throws IOException {
+            return new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, mode, StandardOpenOption.WRITE), 64 * 1024));
+        }
+    }
+
+    /**
+     * Read-only views of a pair's column files as of one build or append. Views are never written, so any number of
+     * readers may scan one while the next is being prepared.
+     */
+    private static final class Series {
+
+        private static final Series UNSUPPORTED = new Series(null, null, null, null, null, 0, List.of());
+
+        private final Path[] files;
+        private final LongBuffer dates;
+        private final LongBuffer rates;
+        private final ByteBuffer sources;
+        private final ByteBuffer ids;
+        private final int size;
+        private final List<String> sourceNames;
+
+        private Series(Path[] files, LongBuffer dates, LongBuffer rates, ByteBuffer sources, ByteBuffer ids, int size,
+                       List<String> sourceNames) {
+            this.files = files;
+            this.dates = dates;
+            this.rates = rates;
+            this.sources = sources;
+            this.ids = ids;
+            this.size = size;
+            this.sourceNames = sourceNames;
+        }
+
+        static Series map(Path[] files, int size, List<String> sourceNames) throws IOException {
+            return new Series(files, map(files[0], (long) size * Long.BYTES).asLongBuffer(),
+                    map(files[1], (long) size * Long.BYTES).asLongBuffer(), map(files[2], size),
+                    map(files[3], (long) size * ID_LENGTH), size,
+                    Collections.unmodifiableList(new ArrayList<>(sourceNames)));
+        }
+
+        private static ByteBuffer map(Path file, long length) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // The mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            }
+        }
+
+        /**
+         * Index of the first date on or after {@code date}, or {@link #size} when there is none.
+         */
+        int indexOf(long date) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (dates.get(middle) < date) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // Whether a rate dated within the column is the one stored, as when a build already read its commit
+        boolean holds(Row row, List<String> names) {
+            int index = indexOf(row.date);
+            if (index >= size || dates.get(index) != row.date || rates.get(index) != row.scaledRate
+                    || !Objects.equals(sourceNames.get(sources.get(index)), names.get(row.source))) {
+                return false;
+            }
+            byte[] id = new byte[ID_LENGTH];
+            ids.get(index * ID_LENGTH, id);
+            return Arrays.equals(id, row.id);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully encoded JSON bodies of the read endpoints that return the same data to every caller between changes, such
+ * as {@code GET /currencies} and {@code GET /exchange-rates/latest}.
+ * <p>
+ * An entry holds the body as sent and, from {@code server.compression.min-response-size} up, its gzip encoding,
+ * both built once per data version. A hit writes those bytes straight to the servlet output stream, so it makes no
+ * service call and does no serialization or compression; the {@code timestamp} of the body is therefore the time
+ * it was built. Only successful responses are cached, under at most {@code response-cache.max-entries} keys.
+ * <p>
+ * Each entry carries the {@link DataVersion} read before its data was, so a body built from data older than the
+ * current version is never served. Every committed change also clears the cache, so superseded bodies do not
+ * linger until their key is next asked for.
+ */
+@Component
+@Slf4j
+public class ResponseBodyCache {
+
+    private final DataVersion dataVersion;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long gzipMinSize;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ResponseBodyCache(DataVersion dataVersion, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${response-cache.enabled:true}") boolean enabled,
+                             @Value("${response-cache.max-entries:10000}") int maxEntries,
+                             @Value("${server.compression.min-response-size:2KB}") DataSize gzipMinSize) {
+        this.dataVersion = dataVersion;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.gzipMinSize = gzipMinSize.toBytes();
+        this.hits = Counter.builder("response.cache.lookups")
+                .description("Response bodies written from the response body cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("response.cache.lookups")
+                .description("Response bodies written from the response body cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("response.cache.size", entries, Map::size)
+                .description("Encoded response bodies held")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes the cached body for {@code key} as a 200 response, first encoding the value of {@code body} when the
+     * key has no body for the current data version. The key has to name the endpoint and every parameter the body
+     * depends on. Exceptions from {@code body} propagate and leave the cache as it was.
+     */
+    public void write(String key, HttpServletRequest request, HttpServletResponse response, Supplier<?> body)
+            throws IOException {
+        long version = dataVersion.current().getVersion();
+        Entry entry = enabled ? entries.get(key) : null;
+        if (entry != null && entry.version == version) {
+            hits.increment();
+        } else {
+            misses.increment();
+            entry = encode(version, body.get());
+            if (enabled && (entries.size() < maxEntries || entries.containsKey(key))) {
+                // A request that read an older version must not replace a body built for a newer one
+                entries.merge(key, entry, (current, candidate) -> candidate.version >= current.version
+                        ? candidate : current);
+            }
+        }
+
+        byte[] bytes = entry.identity;
+        if (entry.gzipped != null && acceptsGzip(request)) {
+            bytes = entry.gzipped;
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExchangeRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurrenciesChanged(CurrenciesChangedEvent event) {
+        clear();
+    }
+
+    private void clear() {
+        entries.clear();
+        log.debug("Response body cache cleared");
+    }
+
+    private Entry encode(long version, Object body) throws IOException {
+        byte[] identity = objectMapper.writeValueAsBytes(body);
+        if (identity.length < gzipMinSize) {
+            return new Entry(version, identity, null);
+        }
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(identity.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(identity);
+        }
+        return new Entry(version, identity, gzipped.toByteArray());
+    }
+
+    // Any gzip entry in Accept-Encoding, or *, except one with q=0
+    static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                    return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    private record Entry(long version, byte[] identity, byte[] gzipped) {
+    }
+}
@@ -1,34 +1,117 @@
 package com.cathaybank.currencyexchange.config;
 
 import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
 
 @Configuration
+@Slf4j
 public class AppConfig {
 
+    @Value("${api.oanda.base-url}")
+    private String baseUrl;
+
     @Value("${api.oanda.request-timeout:5000}")
     private int requestTimeout;
 
+    @Value("${api.oanda.http2-enabled:true}")
+    private boolean http2Enabled;
+
+    @Value("${api.oanda.pool.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${api.oanda.pool.pending-acquire-max-count:200}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${api.oanda.pool.pending-acquire-timeout:5000}")
+    private long pendingAcquireTimeout;
+
+    @Value("${api.oanda.pool.max-idle-time:30000}")
+    private long maxIdleTime;
+
+    @Value("${api.oanda.pool.max-life-time:300000}")
+    private long maxLifeTime;
+
+    @Value("${api.oanda.pool.eviction-interval:60000}")
+    private long evictionInterval;
+
+    /**
+     * Connection pool dedicated to the OANDA upstream. Pool gauges are published under
+     * {@code reactor.netty.connection.provider.*} with the {@code oanda} name tag.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider oandaConnectionProvider() {
+        return ConnectionProvider.builder("oanda")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeout))
+                .maxIdleTime(Duration.ofMillis(maxIdleTime))
+                .maxLifeTime(Duration.ofMillis(maxLifeTime))
+                .evictInBackground(Duration.ofMillis(evictionInterval))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * The single, immutable client used for every OANDA request. It is built once at startup from a copy of the
+     * auto-configured builder, so its base URL and filters never leak into other clients.
+     */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        HttpClient httpClient = HttpClient.create()
+    public WebClient oandaWebClient(WebClient.Builder webClientBuilder, ConnectionProvider oandaConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(oandaConnectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, requestTimeout)
-                .responseTimeout(Duration.ofMillis(requestTimeout))
-                .doOnConnected(conn ->
-                        conn.addHandlerLast(new ReadTimeoutHandler(requestTimeout, TimeUnit.MILLISECONDS))
-                                .addHandlerLast(new WriteTimeoutHandler(requestTimeout, TimeUnit.MILLISECONDS)));
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                // Bounds each exchange only; channel-wide read/write timeout handlers would also close pooled
+                // connections after the same time idle, long before max-idle-time
+                .responseTimeout(Duration.ofMillis(requestTimeout));
+
+        // HTTP/2 is negotiated through ALPN, so it is only offered over TLS
+        if (http2Enabled && baseUrl.startsWith("https")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .filter(logRequest())
+                .filter(logResponse())
+                .build();
+    }
+
+    private ExchangeFilterFunction logRequest() {
+        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
+            if (log.isDebugEnabled()) {
+                log.debug("Request: {} {}", clientRequest.method(), clientRequest.url());
+                clientRequest.headers().forEach((name, values) ->
+                        values.forEach(value -> log.debug("{}={}", name, value)));
+            }
+            return Mono.just(clientRequest);
+        });
+    }
 
-        return WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(httpClient));
+    private ExchangeFilterFunction logResponse() {
+        return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
+            if (log.isDebugEnabled()) {
+                log.debug("Response status: {}", clientResponse.statusCode());
+                clientResponse.headers().asHttpHeaders().forEach((name, values) ->
+                        values.forEach(value -> log.debug("{}={}", name, value)));
+            }
+            return Mono.just(clientResponse);
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package com.cathaybank.currencyexchange.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Circuit breaker and bulkhead for the OANDA upstream, both named after its host.
+ * <p>
+ * Breaker state, call outcomes and latency are published as {@code resilience4j.circuitbreaker.*}, bulkhead usage as
+ * {@code resilience4j.bulkhead.*}, and every state change is counted in {@code oanda.circuit-breaker.transitions}.
+ */
+@Configuration
+@Slf4j
+public class OandaResilienceConfig {
+
+    @Value("${api.oanda.base-url}")
+    private String baseUrl;
+
+    @Value("${api.oanda.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${api.oanda.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${api.oanda.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${api.oanda.circuit-breaker.open-duration:30000}")
+    private long openDuration;
+
+    @Value("${api.oanda.circuit-breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${api.oanda.bulkhead.max-concurrent-calls:10}")
+    private int maxConcurrentCalls;
+
+    @Bean
+    public CircuitBreakerRegistry oandaCircuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(Duration.ofMillis(openDuration))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .recordException(OandaResilienceConfig::isUpstreamFailure)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public CircuitBreaker oandaCircuitBreaker(CircuitBreakerRegistry oandaCircuitBreakerRegistry,
+                                              MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = oandaCircuitBreakerRegistry.circuitBreaker(host());
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("OANDA circuit breaker for {}: {}", event.getCircuitBreakerName(), event.getStateTransition());
+            Counter.builder("oanda.circuit-breaker.transitions")
+                    .description("State changes of the OANDA circuit breaker")
+                    .tag("name", event.getCircuitBreakerName())
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+        return circuitBreaker;
+    }
+
+    /**
+     * Rejects calls beyond {@code api.oanda.bulkhead.max-concurrent-calls} at once instead of queueing them behind
+     * the connection pool. Keep it above {@code api.oanda.max-concurrency} to leave room for hedged requests.
+     */
+    @Bean
+    public Bulkhead oandaBulkhead(MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(host());
+    }
+
+    /**
+     * Failures that say something about the upstream: connection errors, timeouts, 5xx and 429. These count
+     * against the circuit breaker and are retried; other 4xx responses are neither.
+     */
+    public static boolean isUpstreamFailure(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError()
+                    || responseException.getStatusCode().value() == 429;
+        }
+        return throwable instanceof WebClientRequestException || throwable instanceof TimeoutException;
+    }
+
+    private String host() {
+        return URI.create(baseUrl).getHost();
+    }
+}
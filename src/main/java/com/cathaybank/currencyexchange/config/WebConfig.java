@@ -1,38 +1,49 @@
 package com.cathaybank.currencyexchange.config;
 
-import com.cathaybank.currencyexchange.util.LoggingInterceptor;
-import org.springframework.context.annotation.Bean;
+import com.cathaybank.currencyexchange.util.ConditionalGetInterceptor;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.CommonsRequestLoggingFilter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
 
+import java.util.List;
+
+/**
+ * Request access logging is done by {@link com.cathaybank.currencyexchange.util.AccessLogFilter}.
+ */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
-    private final LoggingInterceptor loggingInterceptor;
     private final LocaleChangeInterceptor localeChangeInterceptor;
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
 
-    public WebConfig(LoggingInterceptor loggingInterceptor, LocaleChangeInterceptor localeChangeInterceptor) {
-        this.loggingInterceptor = loggingInterceptor;
+    public WebConfig(LocaleChangeInterceptor localeChangeInterceptor,
+                     ConditionalGetInterceptor conditionalGetInterceptor) {
         this.localeChangeInterceptor = localeChangeInterceptor;
+        this.conditionalGetInterceptor = conditionalGetInterceptor;
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(loggingInterceptor);
         registry.addInterceptor(localeChangeInterceptor);
+        // Endpoints whose responses depend on nothing but the request and the stored data
+        registry.addInterceptor(conditionalGetInterceptor)
+                .addPathPatterns("/currencies", "/currencies/*", "/currencies/code/*",
+                        "/exchange-rates", "/exchange-rates/latest");
     }
 
-    @Bean
-    public CommonsRequestLoggingFilter requestLoggingFilter() {
-        CommonsRequestLoggingFilter filter = new CommonsRequestLoggingFilter();
-        filter.setIncludeQueryString(true);
-        filter.setIncludePayload(true);
-        filter.setMaxPayloadLength(10000);
-        filter.setIncludeHeaders(true);
-        filter.setAfterMessagePrefix("REQUEST DATA: ");
-        return filter;
+    /**
+     * Runs ahead of every other resolver, without resolving anything, so that no failure, whichever resolver then
+     * answers it, keeps the public {@code Cache-Control} the conditional GET interceptor set before the handler ran.
+     */
+    @Override
+    public void extendHandlerExceptionResolvers(List<HandlerExceptionResolver> resolvers) {
+        resolvers.add(0, (request, response, handler, ex) -> {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            return null;
+        });
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,22 @@
 package com.cathaybank.currencyexchange.controller;
 
+import com.cathaybank.currencyexchange.cache.ResponseBodyCache;
 import com.cathaybank.currencyexchange.dto.ApiResponse;
 import com.cathaybank.currencyexchange.dto.CurrencyDTO;
 import com.cathaybank.currencyexchange.service.CurrencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/currencies")
@@ -22,13 +26,17 @@ import java.util.List;
 public class CurrencyController {
 
     private final CurrencyService currencyService;
+    private final ResponseBodyCache responseBodyCache;
 
-    @GetMapping
+    /**
+     * Writes the {@code ApiResponse} of all currencies from the {@link ResponseBodyCache}.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get all currencies", description = "Retrieves all currencies sorted by code")
-    public ResponseEntity<ApiResponse<List<CurrencyDTO>>> getAllCurrencies() {
+    public void getAllCurrencies(HttpServletRequest request, HttpServletResponse response) throws IOException {
         log.info("GET /currencies - Retrieving all currencies");
-        List<CurrencyDTO> currencies = currencyService.getAllCurrencies();
-        return ResponseEntity.ok(ApiResponse.success(currencies));
+        responseBodyCache.write("currencies", request, response,
+                () -> ApiResponse.success(currencyService.getAllCurrencies()));
     }
 
     @GetMapping("/{id}")
@@ -1,20 +1,44 @@
 package com.cathaybank.currencyexchange.controller;
 
+import com.cathaybank.currencyexchange.cache.ResponseBodyCache;
 import com.cathaybank.currencyexchange.dto.ApiResponse;
 import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.dto.ExchangeRatePageDTO;
+import com.cathaybank.currencyexchange.dto.ExchangeRateSeriesDTO;
+import com.cathaybank.currencyexchange.dto.LatestRatesBatchDTO;
+import com.cathaybank.currencyexchange.dto.LatestRatesBatchRequest;
+import com.cathaybank.currencyexchange.dto.SyncJobDTO;
 import com.cathaybank.currencyexchange.service.ExchangeRateService;
+import com.cathaybank.currencyexchange.service.RateStreamService;
+import com.cathaybank.currencyexchange.service.SyncJobService;
+import com.cathaybank.currencyexchange.util.ExchangeRateSeriesProtobufConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/exchange-rates")
@@ -23,37 +47,199 @@ import java.util.List;
 @Slf4j
 public class ExchangeRateController {
 
+    public static final String COLUMNAR_JSON_VALUE = "application/vnd.cathaybank.columnar+json";
+
     private final ExchangeRateService exchangeRateService;
+    private final SyncJobService syncJobService;
+    private final RateStreamService rateStreamService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ResponseBodyCache responseBodyCache;
 
+    /**
+     * Returns the range one page at a time. When more rates follow, the response carries a {@code Link} header with
+     * {@code rel="next"} pointing at the same request with the next {@code pageToken}.
+     * <p>
+     * The same page is also available in columnar form, which describes the pair once: see
+     * {@link #getExchangeRateSeries} and {@link #getExchangeRateSeriesProtobuf}.
+     */
     @GetMapping
-    @Operation(summary = "Get exchange rates", description = "Retrieves exchange rates for a currency pair within a date range")
+    @Operation(summary = "Get exchange rates",
+            description = "Retrieves one page of exchange rates for a currency pair within a date range; " +
+                    "follow the Link rel=\"next\" header for the next page")
     public ResponseEntity<ApiResponse<List<ExchangeRateDTO>>> getExchangeRates(
+            @RequestParam String baseCode,
+            @RequestParam String quoteCode,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) Integer pageSize) {
+
+        ExchangeRatePageDTO page = getPage(baseCode, quoteCode, startDate, endDate, pageToken, pageSize);
+
+        return pageResponse(page).body(ApiResponse.success(page.getRates()));
+    }
+
+    /**
+     * Returns the same page as {@link #getExchangeRates} as one {@link ExchangeRateSeriesDTO}, in JSON or CBOR,
+     * for clients that ask for {@value #COLUMNAR_JSON_VALUE} or {@code application/cbor}.
+     */
+    @GetMapping(produces = {COLUMNAR_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get exchange rates in columnar form",
+            description = "Retrieves one page of exchange rates as parallel date and rate arrays, in JSON or CBOR")
+    public ResponseEntity<ApiResponse<ExchangeRateSeriesDTO>> getExchangeRateSeries(
+            @RequestParam String baseCode,
+            @RequestParam String quoteCode,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) Integer pageSize) {
+
+        ExchangeRatePageDTO page = getPage(baseCode, quoteCode, startDate, endDate, pageToken, pageSize);
+
+        return pageResponse(page).body(ApiResponse.success(
+                ExchangeRateSeriesDTO.of(baseCode, quoteCode, page.getRates())));
+    }
+
+    /**
+     * Returns the same page as {@link #getExchangeRates} as an {@code ExchangeRateSeries} Protobuf message, without
+     * the {@link ApiResponse} envelope. Errors are still reported as JSON.
+     */
+    @GetMapping(produces = ExchangeRateSeriesProtobufConverter.PROTOBUF_VALUE)
+    @Operation(summary = "Get exchange rates as Protobuf",
+            description = "Retrieves one page of exchange rates as an ExchangeRateSeries message")
+    public ResponseEntity<ExchangeRateSeriesDTO> getExchangeRateSeriesProtobuf(
+            @RequestParam String baseCode,
+            @RequestParam String quoteCode,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) Integer pageSize) {
+
+        ExchangeRatePageDTO page = getPage(baseCode, quoteCode, startDate, endDate, pageToken, pageSize);
+
+        return pageResponse(page).body(ExchangeRateSeriesDTO.of(baseCode, quoteCode, page.getRates()));
+    }
+
+    private ExchangeRatePageDTO getPage(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate,
+                                        String pageToken, Integer pageSize) {
+        log.info("GET /exchange-rates - Retrieving exchange rates: base={}, quote={}, startDate={}, endDate={}, " +
+                        "pageToken={}, pageSize={}", baseCode, quoteCode, startDate, endDate, pageToken, pageSize);
+
+        return exchangeRateService.getExchangeRates(baseCode, quoteCode, startDate, endDate, pageToken, pageSize);
+    }
+
+    // Vary: Accept and an ETag per representation come from ConditionalGetInterceptor
+    private static ResponseEntity.BodyBuilder pageResponse(ExchangeRatePageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextPageToken() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("pageToken", page.getNextPageToken())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response;
+    }
+
+    /**
+     * Streams the range as newline-delimited JSON, one rate per line, while rows are still being read from the
+     * database. Nothing is buffered beyond the JDBC fetch size, so memory use does not depend on the range length.
+     */
+    @GetMapping(value = "/history", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream exchange rate history",
+            description = "Streams exchange rates for a currency pair within a date range as NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamExchangeRates(
             @RequestParam String baseCode,
             @RequestParam String quoteCode,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        log.info("GET /exchange-rates - Retrieving exchange rates: base={}, quote={}, startDate={}, endDate={}",
+        log.info("GET /exchange-rates/history - Streaming exchange rates: base={}, quote={}, startDate={}, endDate={}",
                 baseCode, quoteCode, startDate, endDate);
 
-        List<ExchangeRateDTO> exchangeRates = exchangeRateService.getExchangeRates(
-                baseCode, quoteCode, startDate, endDate);
+        long requestStart = System.nanoTime();
+        StreamingResponseBody body = outputStream -> {
+            long[] firstByteAt = {0};
+            long count;
+            try (SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                count = exchangeRateService.streamExchangeRates(baseCode, quoteCode, startDate, endDate, rate -> {
+                    try {
+                        writer.write(rate);
+                        if (firstByteAt[0] == 0) {
+                            // Push the first line out immediately instead of waiting for the buffer to fill
+                            writer.flush();
+                            firstByteAt[0] = System.nanoTime();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+
+            long end = System.nanoTime();
+            long timeToFirstByte = (firstByteAt[0] == 0 ? end : firstByteAt[0]) - requestStart;
+            Timer.builder("exchange.rate.stream.first-byte")
+                    .description("Time from request to the first NDJSON line of a history stream")
+                    .register(meterRegistry)
+                    .record(timeToFirstByte, TimeUnit.NANOSECONDS);
+            log.info("Streamed {} exchange rates for {}/{}: first byte after {} ms, done after {} ms",
+                    count, baseCode, quoteCode,
+                    TimeUnit.NANOSECONDS.toMillis(timeToFirstByte), TimeUnit.NANOSECONDS.toMillis(end - requestStart));
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Pushes the latest rate of each requested pair, as Server-Sent Events, on subscribe and whenever a sync or a
+     * manual create commits a newer one. A client that reads slowly receives the newest rate of each pair rather
+     * than every intermediate one. Spring MVC writes a {@code text/event-stream} Flux without an async timeout, so
+     * {@code spring.mvc.async.request-timeout} does not close the stream.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream exchange rate updates",
+            description = "Pushes a rate event whenever a newer rate of a pair is stored; " +
+                    "pairs (e.g. USD/EUR,USD/JPY) limits the stream to those pairs")
+    public Flux<ServerSentEvent<String>> streamRateUpdates(@RequestParam(required = false) List<String> pairs) {
+        log.info("GET /exchange-rates/stream - Opening rate update stream: pairs={}", pairs);
 
-        return ResponseEntity.ok(ApiResponse.success(exchangeRates));
+        return rateStreamService.subscribe(pairs);
     }
 
-    @GetMapping("/latest")
+    /**
+     * Writes the {@code ApiResponse} of the pair's latest rate from the {@link ResponseBodyCache}.
+     */
+    @GetMapping(value = "/latest", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get latest exchange rate", description = "Retrieves the latest exchange rate for a currency pair")
-    public ResponseEntity<ApiResponse<ExchangeRateDTO>> getLatestExchangeRate(
+    public void getLatestExchangeRate(
             @RequestParam String baseCode,
-            @RequestParam String quoteCode) {
+            @RequestParam String quoteCode,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
         log.info("GET /exchange-rates/latest - Retrieving latest exchange rate: base={}, quote={}",
                 baseCode, quoteCode);
 
-        ExchangeRateDTO exchangeRate = exchangeRateService.getLatestExchangeRate(baseCode, quoteCode);
+        responseBodyCache.write("exchange-rates/latest?" + baseCode + "/" + quoteCode, request, response,
+                () -> ApiResponse.success(exchangeRateService.getLatestExchangeRate(baseCode, quoteCode)));
+    }
+
+    @PostMapping("/latest/batch")
+    @Operation(summary = "Get latest exchange rates in batch",
+            description = "Retrieves the latest exchange rate for up to 1000 currency pairs; pairs without a rate are listed as missing")
+    public ResponseEntity<ApiResponse<LatestRatesBatchDTO>> getLatestExchangeRates(
+            @Valid @RequestBody LatestRatesBatchRequest request) {
 
-        return ResponseEntity.ok(ApiResponse.success(exchangeRate));
+        log.info("POST /exchange-rates/latest/batch - Retrieving latest exchange rates for {} pairs",
+                request.getPairs().size());
+
+        LatestRatesBatchDTO result = exchangeRateService.getLatestExchangeRates(request.getPairs());
+
+        return ResponseEntity.ok(ApiResponse.success(result));
     }
 
     @PostMapping
@@ -70,12 +256,24 @@ public class ExchangeRateController {
     }
 
     @PostMapping("/sync")
-    @Operation(summary = "Sync exchange rates", description = "Triggers manual synchronization of exchange rates from external API")
-    public ResponseEntity<ApiResponse<Void>> syncExchangeRates() {
+    @Operation(summary = "Sync exchange rates",
+            description = "Queues a synchronization of exchange rates from the external API and returns its job; " +
+                    "a trigger while a job is queued or running returns that job")
+    public ResponseEntity<ApiResponse<SyncJobDTO>> syncExchangeRates() {
         log.info("POST /exchange-rates/sync - Syncing exchange rates");
 
-        exchangeRateService.syncExchangeRates();
+        SyncJobDTO job = syncJobService.submit(SyncJobDTO.Trigger.MANUAL);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(ApiResponse.success("Exchange rates synchronization accepted", job));
+    }
+
+    @GetMapping("/sync/{id}")
+    @Operation(summary = "Get sync job", description = "Reports the status and per-pair progress of a synchronization job")
+    public ResponseEntity<ApiResponse<SyncJobDTO>> getSyncJob(@PathVariable String id) {
+        log.info("GET /exchange-rates/sync/{} - Retrieving sync job", id);
 
-        return ResponseEntity.ok(ApiResponse.success("Exchange rates synchronization started", null));
+        return ResponseEntity.ok(ApiResponse.success(syncJobService.getJob(id)));
     }
 }
\ No newline at end of file
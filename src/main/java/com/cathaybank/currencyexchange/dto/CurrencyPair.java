@@ -0,0 +1,22 @@
+package com.cathaybank.currencyexchange.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyPair {
+
+    @NotBlank(message = "{currency.code.notBlank}")
+    private String baseCode;
+
+    @NotBlank(message = "{currency.code.notBlank}")
+    private String quoteCode;
+
+    public String key() {
+        return baseCode + "/" + quoteCode;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cathaybank.currencyexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a date range, in date order. {@code nextPageToken} is an opaque cursor for the page after this one,
+ * or {@code null} on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExchangeRatePageDTO {
+
+    private List<ExchangeRateDTO> rates;
+    private String nextPageToken;
+}
@@ -0,0 +1,74 @@
+package com.cathaybank.currencyexchange.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columnar form of a page of one pair's rates: the pair is described once, followed by parallel {@code dates} and
+ * {@code rates} arrays in date order. {@code source} is set when every rate on the page has the same source;
+ * otherwise {@code sources} holds the source of each rate. Rate ids are not included.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExchangeRateSeriesDTO {
+
+    private String baseCurrencyCode;
+    private String baseCurrencyName;
+    private String quoteCurrencyCode;
+    private String quoteCurrencyName;
+
+    @JsonFormat(pattern = "yyyy/MM/dd HH:mm:ss")
+    private List<LocalDateTime> dates;
+
+    private List<BigDecimal> rates;
+    private String source;
+    private List<String> sources;
+
+    /**
+     * Builds the series of a page of the given pair; the pair's names come from the rates, so they are left unset
+     * when the page is empty.
+     */
+    public static ExchangeRateSeriesDTO of(String baseCode, String quoteCode, List<ExchangeRateDTO> page) {
+        ExchangeRateSeriesDTOBuilder series = ExchangeRateSeriesDTO.builder()
+                .baseCurrencyCode(baseCode)
+                .quoteCurrencyCode(quoteCode);
+        if (!page.isEmpty()) {
+            ExchangeRateDTO first = page.get(0);
+            series.baseCurrencyCode(first.getBaseCurrencyCode())
+                    .baseCurrencyName(first.getBaseCurrencyName())
+                    .quoteCurrencyCode(first.getQuoteCurrencyCode())
+                    .quoteCurrencyName(first.getQuoteCurrencyName());
+        }
+
+        List<LocalDateTime> dates = new ArrayList<>(page.size());
+        List<BigDecimal> rates = new ArrayList<>(page.size());
+        List<String> sources = new ArrayList<>(page.size());
+        boolean oneSource = true;
+        for (ExchangeRateDTO rate : page) {
+            dates.add(rate.getDate());
+            rates.add(rate.getRate());
+            sources.add(rate.getSource());
+            oneSource &= rate.getSource() != null && rate.getSource().equals(sources.get(0));
+        }
+        if (oneSource && !sources.isEmpty()) {
+            series.source(sources.get(0));
+        } else if (!oneSource) {
+            series.sources(sources);
+        }
+        return series.dates(dates)
+                .rates(rates)
+                .build();
+    }
+}
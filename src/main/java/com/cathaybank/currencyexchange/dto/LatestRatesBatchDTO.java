@@ -0,0 +1,21 @@
+package com.cathaybank.currencyexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a batch latest-rate lookup: the rates found, in request order, and every requested pair without one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatestRatesBatchDTO {
+
+    private List<ExchangeRateDTO> rates;
+    private List<CurrencyPair> missing;
+}
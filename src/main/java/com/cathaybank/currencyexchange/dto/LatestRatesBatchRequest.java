@@ -0,0 +1,25 @@
+package com.cathaybank.currencyexchange.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatestRatesBatchRequest {
+
+    public static final int MAX_PAIRS = 1000;
+
+    @NotEmpty(message = "{exchange.rate.batch.empty}")
+    @Size(max = MAX_PAIRS, message = "{exchange.rate.batch.size}")
+    @Valid
+    private List<CurrencyPair> pairs;
+}
@@ -0,0 +1,145 @@
+package com.cathaybank.currencyexchange.dto;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Daily rates of one currency pair as returned by a {@link com.cathaybank.currencyexchange.service.RateProvider}.
+ * Days and rates are held in parallel primitive arrays so a provider can fill a batch without allocating per row.
+ * Rates are fixed-point longs with {@link #SCALE} decimals, the precision of the {@code exchange_rate.rate} column.
+ * Each day appears at most once.
+ */
+@Getter
+public final class RateBatch {
+
+    public static final int SCALE = 6;
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final String baseCode;
+    private final String quoteCode;
+    private final String source;
+    private final int[] epochDays;
+    private final long[] scaledRates;
+    private final int size;
+
+    private RateBatch(String baseCode, String quoteCode, String source, int[] epochDays, long[] scaledRates,
+                      int size) {
+        this.baseCode = baseCode;
+        this.quoteCode = quoteCode;
+        this.source = source;
+        this.epochDays = epochDays;
+        this.scaledRates = scaledRates;
+        this.size = size;
+    }
+
+    public static RateBatch empty(String baseCode, String quoteCode, String source) {
+        return new RateBatch(baseCode, quoteCode, source, new int[0], new long[0], 0);
+    }
+
+    public static Builder builder(String baseCode, String quoteCode, String source, int expectedSize) {
+        return new Builder(baseCode, quoteCode, source, expectedSize);
+    }
+
+    /**
+     * Parses the plain non-negative decimal held in positions {@code start} to {@code end} (exclusive) of some
+     * character source to {@link #SCALE} decimals, rounding half up, without building a string. Returns -1 for
+     * anything else, and for integer parts beyond 11 digits, which would overflow the fixed-point value.
+     *
+     * @param charAt the character at a position, so char arrays and byte buffers share one parser
+     */
+    public static long parseScaled(IntUnaryOperator charAt, int start, int end) {
+        long unscaled = 0;
+        int integerDigits = 0;
+        int fractionDigits = -1;
+        for (int position = start; position < end; position++) {
+            int c = charAt.applyAsInt(position);
+            if (c >= '0' && c <= '9') {
+                if (fractionDigits < 0) {
+                    if (++integerDigits > 11) {
+                        return -1;
+                    }
+                    unscaled = unscaled * 10 + (c - '0');
+                } else if (fractionDigits <= SCALE) {
+                    unscaled = unscaled * 10 + (c - '0');
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return -1;
+            }
+        }
+        if (integerDigits == 0 && fractionDigits <= 0) {
+            return -1;
+        }
+        return toScaled(unscaled, Math.max(fractionDigits, 0));
+    }
+
+    /**
+     * Brings a decimal parsed as {@code unscaled} digits with {@code fractionDigits} decimals to {@link #SCALE},
+     * rounding half up. Parsers keep at most one decimal beyond the scale, which is all half-up rounding needs.
+     */
+    public static long toScaled(long unscaled, int fractionDigits) {
+        if (fractionDigits <= SCALE) {
+            return unscaled * POWERS_OF_TEN[SCALE - fractionDigits];
+        }
+        if (fractionDigits == SCALE + 1) {
+            return (unscaled + 5) / 10;
+        }
+        throw new IllegalArgumentException("At most " + (SCALE + 1) + " decimals are kept, got " + fractionDigits);
+    }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public long scaledRate(int index) {
+        return scaledRates[index];
+    }
+
+    public BigDecimal rate(int index) {
+        return BigDecimal.valueOf(scaledRates[index], SCALE);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public static final class Builder {
+
+        private final String baseCode;
+        private final String quoteCode;
+        private final String source;
+        private int[] epochDays;
+        private long[] scaledRates;
+        private int size;
+
+        private Builder(String baseCode, String quoteCode, String source, int expectedSize) {
+            this.baseCode = baseCode;
+            this.quoteCode = quoteCode;
+            this.source = source;
+            this.epochDays = new int[Math.max(expectedSize, 1)];
+            this.scaledRates = new long[epochDays.length];
+        }
+
+        public Builder add(int epochDay, long scaledRate) {
+            if (size == epochDays.length) {
+                epochDays = Arrays.copyOf(epochDays, size * 2);
+                scaledRates = Arrays.copyOf(scaledRates, size * 2);
+            }
+            epochDays[size] = epochDay;
+            scaledRates[size] = scaledRate;
+            size++;
+            return this;
+        }
+
+        public RateBatch build() {
+            return new RateBatch(baseCode, quoteCode, source, epochDays, scaledRates, size);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.cathaybank.currencyexchange.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A point-in-time view of an exchange rate sync job and the progress of each of its pairs.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncJobDTO {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    public enum Trigger { MANUAL, SCHEDULED }
+
+    public enum PairStatus { PENDING, UP_TO_DATE, SYNCED, FAILED }
+
+    private String id;
+    private Status status;
+    private Trigger trigger;
+
+    // Triggers that arrived while this job was queued or running and were folded into it, including the first
+    private int triggerCount;
+
+    private int totalPairs;
+    private int completedPairs;
+    private int failedPairs;
+    private int savedRates;
+    private String error;
+
+    @JsonFormat(pattern = "yyyy/MM/dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy/MM/dd HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy/MM/dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    private List<PairProgress> pairs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PairProgress {
+        private String pair;
+        private PairStatus status;
+        private int windows;
+    }
+}
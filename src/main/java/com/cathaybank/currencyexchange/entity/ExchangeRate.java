@@ -1,5 +1,6 @@
 package com.cathaybank.currencyexchange.entity;
 
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,13 +12,33 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "exchange_rate")
+@SqlResultSetMapping(name = ExchangeRate.DTO_MAPPING, classes = @ConstructorResult(
+        targetClass = ExchangeRateDTO.class,
+        columns = {
+                @ColumnResult(name = "id", type = String.class),
+                @ColumnResult(name = "base_code", type = String.class),
+                @ColumnResult(name = "base_name", type = String.class),
+                @ColumnResult(name = "quote_code", type = String.class),
+                @ColumnResult(name = "quote_name", type = String.class),
+                @ColumnResult(name = "rate", type = BigDecimal.class),
+                @ColumnResult(name = "date", type = LocalDateTime.class),
+                @ColumnResult(name = "source", type = String.class)
+        }))
+@Table(name = "exchange_rate", indexes = {
+        @Index(name = "uk_exchange_rate_pair_date", columnList = "base_currency_id, quote_currency_id, date", unique = true)
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExchangeRate {
 
+    /**
+     * Maps native rows with the columns id, base_code, base_name, quote_code, quote_name, rate, date and source
+     * onto {@link ExchangeRateDTO}, the same shape the JPQL reads project into.
+     */
+    public static final String DTO_MAPPING = "ExchangeRateDTO";
+
     @Id
     @GeneratedValue(generator = "UUID")
     @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
@@ -0,0 +1,50 @@
+package com.cathaybank.currencyexchange.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The date up to which a synced pair is complete: every earlier day has been fetched from the upstream.
+ */
+@Entity
+@Table(name = "sync_watermark", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sync_watermark_pair", columnNames = {"base_currency_id", "quote_currency_id"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncWatermark {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "base_currency_id", nullable = false)
+    private Currency baseCurrency;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "quote_currency_id", nullable = false)
+    private Currency quoteCurrency;
+
+    @Column(name = "synced_through", nullable = false)
+    private LocalDate syncedThrough;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,15 @@
+package com.cathaybank.currencyexchange.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published whenever a currency has been created, updated or deleted.
+ * Listeners that cache reference data should reload in the after-commit phase.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CurrenciesChangedEvent {
+
+    private final String currencyId;
+}
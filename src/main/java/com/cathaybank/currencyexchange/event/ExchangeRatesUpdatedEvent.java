@@ -0,0 +1,18 @@
+package com.cathaybank.currencyexchange.event;
+
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published whenever new exchange rates have been written, either by a sync run or a manual create.
+ * Listeners that maintain derived state should react in the after-commit phase.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ExchangeRatesUpdatedEvent {
+
+    private final List<ExchangeRateDTO> exchangeRates;
+}
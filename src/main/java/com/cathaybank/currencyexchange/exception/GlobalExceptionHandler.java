@@ -1,10 +1,12 @@
 package com.cathaybank.currencyexchange.exception;
 
 import com.cathaybank.currencyexchange.dto.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -28,15 +30,18 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ResourceNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ApiResponse<Void> handleResourceNotFoundException(ResourceNotFoundException ex, WebRequest request) {
+    public ApiResponse<Void> handleResourceNotFoundException(ResourceNotFoundException ex, WebRequest request,
+                                                             HttpServletResponse response) {
         log.error("Resource not found: {}", ex.getMessage());
+        sendAsJson(response);
         return ApiResponse.error(ex.getMessage());
     }
 
     @ExceptionHandler(ApiException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiResponse<Void> handleApiException(ApiException ex, WebRequest request) {
+    public ApiResponse<Void> handleApiException(ApiException ex, WebRequest request, HttpServletResponse response) {
         log.error("API exception: {} - {}", ex.getErrorCode(), ex.getMessage());
+        sendAsJson(response);
 
         ApiResponse.ErrorDetails errorDetails = ApiResponse.ErrorDetails.builder()
                 .code(ex.getErrorCode())
@@ -48,8 +53,10 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiResponse<Void> handleValidationExceptions(MethodArgumentNotValidException ex, WebRequest request) {
+    public ApiResponse<Void> handleValidationExceptions(MethodArgumentNotValidException ex, WebRequest request,
+                                                        HttpServletResponse response) {
         log.error("Validation error: {}", ex.getMessage());
+        sendAsJson(response);
 
         BindingResult result = ex.getBindingResult();
         List<FieldError> fieldErrors = result.getFieldErrors();
@@ -73,18 +80,26 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiResponse<Void> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
+    public ApiResponse<Void> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request,
+                                                            HttpServletResponse response) {
         log.error("Invalid argument: {}", ex.getMessage());
+        sendAsJson(response);
         return ApiResponse.error(ex.getMessage());
     }
 
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ApiResponse<Void> handleGlobalException(Exception ex, WebRequest request) {
+    public ApiResponse<Void> handleGlobalException(Exception ex, HttpServletResponse response) {
         log.error("Unhandled exception: {}", ex.getMessage(), ex);
+        sendAsJson(response);
         return ApiResponse.error("An unexpected error occurred. Please try again later.");
     }
 
+    // Error bodies are JSON whatever the client accepts, so a client asking only for Protobuf still learns what failed
+    private static void sendAsJson(HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    }
+
     private String resolveLocalizedMessage(String key) {
         Locale locale = LocaleContextHolder.getLocale();
         try {
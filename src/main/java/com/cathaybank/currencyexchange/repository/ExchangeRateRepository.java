@@ -1,41 +1,52 @@
 package com.cathaybank.currencyexchange.repository;
 
-import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
 import com.cathaybank.currencyexchange.entity.ExchangeRate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Read queries project straight into {@link ExchangeRateDTO} with the currency codes and names joined in,
+ * so each call is a single SQL statement regardless of how many rows it returns.
+ */
 @Repository
-public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, String> {
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, String>, ExchangeRateRepositoryCustom {
 
-    @Query("SELECT er FROM ExchangeRate er WHERE er.baseCurrency.code = :baseCode " +
-            "AND er.quoteCurrency.code = :quoteCode " +
+    String DTO_SELECT = "SELECT new com.cathaybank.currencyexchange.dto.ExchangeRateDTO(" +
+            "er.id, b.code, b.name, q.code, q.name, er.rate, er.date, er.source) " +
+            "FROM ExchangeRate er JOIN er.baseCurrency b JOIN er.quoteCurrency q ";
+
+    /**
+     * Every rate of the pair in the range, in date order, backed by a JDBC cursor so rows are fetched in chunks as
+     * the stream is consumed. Must be consumed and closed inside a transaction. Bounded reads go through
+     * {@link #findPage}.
+     */
+    @Query(DTO_SELECT +
+            "WHERE b.code = :baseCode " +
+            "AND q.code = :quoteCode " +
             "AND er.date BETWEEN :startDate AND :endDate " +
             "ORDER BY er.date ASC")
-    List<ExchangeRate> findByBaseCurrencyCodeAndQuoteCurrencyCodeAndDateBetween(
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ExchangeRateDTO> streamByBaseCurrencyCodeAndQuoteCurrencyCodeAndDateBetween(
             @Param("baseCode") String baseCode,
             @Param("quoteCode") String quoteCode,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT er FROM ExchangeRate er WHERE er.baseCurrency.code = :baseCode " +
-            "AND er.quoteCurrency.code = :quoteCode " +
+    @Query(DTO_SELECT +
+            "WHERE b.code = :baseCode " +
+            "AND q.code = :quoteCode " +
             "ORDER BY er.date DESC LIMIT 1")
-    Optional<ExchangeRate> findLatestByBaseCurrencyCodeAndQuoteCurrencyCode(
+    Optional<ExchangeRateDTO> findLatestByBaseCurrencyCodeAndQuoteCurrencyCode(
             @Param("baseCode") String baseCode,
             @Param("quoteCode") String quoteCode);
-
-    @Query("SELECT er FROM ExchangeRate er WHERE er.baseCurrency = :baseCurrency " +
-            "AND er.quoteCurrency = :quoteCurrency " +
-            "AND er.date = :date")
-    Optional<ExchangeRate> findByBaseCurrencyAndQuoteCurrencyAndDate(
-            @Param("baseCurrency") Currency baseCurrency,
-            @Param("quoteCurrency") Currency quoteCurrency,
-            @Param("date") LocalDateTime date);
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.cathaybank.currencyexchange.repository;
+
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.entity.ExchangeRate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ExchangeRateRepositoryCustom {
+
+    /**
+     * Inserts the given rates in JDBC batches, skipping any pair and date that is already stored.
+     * Each batch first reads which of its pairs and dates are stored in one statement, then inserts the rest
+     * with plain {@code INSERT}s, so there is no separate read per rate and the unique (base, quote, date) index
+     * remains the final arbiter. A rate repeated within the list is inserted once.
+     *
+     * @return the rates that were actually inserted, with their generated ids
+     */
+    List<ExchangeRate> insertMissing(List<ExchangeRate> exchangeRates);
+
+    /**
+     * Latest rate of every stored pair in one statement.
+     */
+    List<ExchangeRateDTO> findLatestForAllPairs();
+
+    /**
+     * Latest rate of each requested pair in one statement. Pairs are matched on their currency ids, so the lookup
+     * reads the unique (pair, date) index rather than the joined table.
+     */
+    List<ExchangeRateDTO> findLatestForPairs(Collection<PairIds> pairs);
+
+    /**
+     * Up to {@code limit} rates of one pair in date order, from {@code startDate} or, when {@code afterDate} is
+     * given, strictly after it, through {@code endDate}. The pair is matched on its ids and the rows are read in
+     * the order of the unique (pair, date) index, so the database stops after {@code limit} rows however deep
+     * into the range the page starts.
+     */
+    List<ExchangeRateDTO> findPage(Currency baseCurrency, Currency quoteCurrency, LocalDateTime startDate,
+                                   LocalDateTime afterDate, LocalDateTime endDate, int limit);
+
+    /**
+     * A currency pair by the ids of its base and quote currencies.
+     */
+    record PairIds(String baseCurrencyId, String quoteCurrencyId) {
+    }
+}
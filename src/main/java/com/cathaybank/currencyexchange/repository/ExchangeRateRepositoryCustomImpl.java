@@ -0,0 +1,213 @@
+package com.cathaybank.currencyexchange.repository;
+
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.entity.ExchangeRate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class ExchangeRateRepositoryCustomImpl implements ExchangeRateRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO exchange_rate " +
+            "(id, base_currency_id, quote_currency_id, rate, date, source, created_at, updated_at, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // One index range per pair in the chunk: an IN list over (pair, date) rows is split by H2 into one IN per
+    // column, and it then reads every stored rate of the base currency
+    private static final String STORED_DATES_SQL =
+            "SELECT date FROM exchange_rate " +
+            "WHERE base_currency_id = ? AND quote_currency_id = ? AND date BETWEEN ? AND ?";
+
+    // Latest-per-pair reads are native: the JPQL form is a MAX(date) subquery correlated on the pair, which H2
+    // re-evaluates for every row and which stalls the snapshot rebuild at a few hundred thousand rows. A row-value
+    // IN over one grouped subquery reads the unique index once. Hibernate cannot render that from JPQL on H2.
+    private static final String LATEST_SELECT =
+            "SELECT er.id, b.code AS base_code, b.name AS base_name, q.code AS quote_code, q.name AS quote_name, " +
+            "er.rate, er.date, er.source " +
+            "FROM exchange_rate er " +
+            "JOIN currency b ON b.id = er.base_currency_id " +
+            "JOIN currency q ON q.id = er.quote_currency_id " +
+            "WHERE (er.base_currency_id, er.quote_currency_id, er.date) IN ";
+
+    private static final String LATEST_FOR_ALL_PAIRS_SQL = LATEST_SELECT +
+            "(SELECT base_currency_id, quote_currency_id, MAX(date) FROM exchange_rate " +
+            "GROUP BY base_currency_id, quote_currency_id)";
+
+    // The requested pairs are a row-value IN list of ids, which H2 answers from the unique index
+    private static final String LATEST_FOR_PAIRS_SQL = LATEST_SELECT +
+            "(SELECT base_currency_id, quote_currency_id, MAX(date) FROM exchange_rate " +
+            "WHERE (base_currency_id, quote_currency_id) IN (%s) " +
+            "GROUP BY base_currency_id, quote_currency_id)";
+
+    // Pages read exchange_rate alone, with the pair resolved to ids up front: H2 only walks the unique index in
+    // order, and so stops at the LIMIT, when exchange_rate is the first table and the ORDER BY spells out the
+    // index columns. With the currency joins in the query it reads the rest of the range and sorts it instead.
+    private static final String PAGE_SQL =
+            "SELECT er.id, er.rate, er.date, er.source FROM exchange_rate er " +
+            "WHERE er.base_currency_id = :baseId AND er.quote_currency_id = :quoteId " +
+            "AND er.date %s :from AND er.date <= :endDate " +
+            "ORDER BY er.base_currency_id, er.quote_currency_id, er.date LIMIT :limit";
+
+    private static final String FIRST_PAGE_SQL = String.format(PAGE_SQL, ">=");
+    private static final String NEXT_PAGE_SQL = String.format(PAGE_SQL, ">");
+
+    private static final String SYSTEM_USER = "SYSTEM";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    @Override
+    public List<ExchangeRate> insertMissing(List<ExchangeRate> exchangeRates) {
+        if (exchangeRates.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp auditTimestamp = Timestamp.valueOf(now);
+        for (ExchangeRate exchangeRate : exchangeRates) {
+            exchangeRate.setId(UUID.randomUUID().toString());
+            exchangeRate.setCreatedAt(now);
+            exchangeRate.setUpdatedAt(now);
+            exchangeRate.setCreatedBy(SYSTEM_USER);
+            exchangeRate.setUpdatedBy(SYSTEM_USER);
+        }
+
+        List<ExchangeRate> inserted = new ArrayList<>();
+        for (int from = 0; from < exchangeRates.size(); from += batchSize) {
+            List<ExchangeRate> chunk = exchangeRates.subList(from, Math.min(from + batchSize, exchangeRates.size()));
+            Set<RateKey> seen = findStoredKeys(chunk);
+            List<ExchangeRate> missing = new ArrayList<>(chunk.size());
+            for (ExchangeRate exchangeRate : chunk) {
+                if (seen.add(RateKey.of(exchangeRate))) {
+                    missing.add(exchangeRate);
+                }
+            }
+            if (missing.isEmpty()) {
+                continue;
+            }
+
+            // Every row of a batch that returns was inserted, whether the driver counts them or reports
+            // SUCCESS_NO_INFO. A pair and date committed by another writer since the read fails the batch on the
+            // unique index and rolls the caller back, as any other constraint violation does.
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, rate) -> {
+                ps.setString(1, rate.getId());
+                ps.setString(2, rate.getBaseCurrency().getId());
+                ps.setString(3, rate.getQuoteCurrency().getId());
+                ps.setBigDecimal(4, rate.getRate());
+                ps.setTimestamp(5, Timestamp.valueOf(rate.getDate()));
+                ps.setString(6, rate.getSource());
+                ps.setTimestamp(7, auditTimestamp);
+                ps.setTimestamp(8, auditTimestamp);
+                ps.setString(9, SYSTEM_USER);
+                ps.setString(10, SYSTEM_USER);
+            });
+            inserted.addAll(missing);
+        }
+        return inserted;
+    }
+
+    private Set<RateKey> findStoredKeys(List<ExchangeRate> exchangeRates) {
+        Map<PairIds, LocalDateTime[]> ranges = new LinkedHashMap<>();
+        for (ExchangeRate exchangeRate : exchangeRates) {
+            LocalDateTime date = exchangeRate.getDate();
+            ranges.merge(RateKey.of(exchangeRate).pair(), new LocalDateTime[]{date, date}, (range, next) -> {
+                range[0] = date.isBefore(range[0]) ? date : range[0];
+                range[1] = date.isAfter(range[1]) ? date : range[1];
+                return range;
+            });
+        }
+
+        Set<RateKey> stored = new HashSet<>();
+        ranges.forEach((pair, range) -> stored.addAll(jdbcTemplate.query(STORED_DATES_SQL,
+                (rs, rowNum) -> new RateKey(pair, rs.getTimestamp(1).toLocalDateTime()),
+                pair.baseCurrencyId(), pair.quoteCurrencyId(), Timestamp.valueOf(range[0]),
+                Timestamp.valueOf(range[1]))));
+        return stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ExchangeRateDTO> findLatestForAllPairs() {
+        return entityManager.createNativeQuery(LATEST_FOR_ALL_PAIRS_SQL, ExchangeRate.DTO_MAPPING)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ExchangeRateDTO> findLatestForPairs(Collection<PairIds> pairs) {
+        if (pairs.isEmpty()) {
+            return List.of();
+        }
+        StringJoiner rows = new StringJoiner(", ");
+        for (int i = 0; i < pairs.size(); i++) {
+            rows.add("(?" + (2 * i + 1) + ", ?" + (2 * i + 2) + ")");
+        }
+        Query query = entityManager.createNativeQuery(String.format(LATEST_FOR_PAIRS_SQL, rows),
+                ExchangeRate.DTO_MAPPING);
+        int position = 1;
+        for (PairIds pair : pairs) {
+            query.setParameter(position++, pair.baseCurrencyId());
+            query.setParameter(position++, pair.quoteCurrencyId());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ExchangeRateDTO> findPage(Currency baseCurrency, Currency quoteCurrency, LocalDateTime startDate,
+                                          LocalDateTime afterDate, LocalDateTime endDate, int limit) {
+        List<Object[]> rows = entityManager.createNativeQuery(afterDate == null ? FIRST_PAGE_SQL : NEXT_PAGE_SQL)
+                .setParameter("baseId", baseCurrency.getId())
+                .setParameter("quoteId", quoteCurrency.getId())
+                .setParameter("from", afterDate == null ? startDate : afterDate)
+                .setParameter("endDate", endDate)
+                .setParameter("limit", limit)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", String.class)
+                .addScalar("rate", BigDecimal.class)
+                .addScalar("date", LocalDateTime.class)
+                .addScalar("source", String.class)
+                .getResultList();
+
+        List<ExchangeRateDTO> page = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            page.add(new ExchangeRateDTO((String) row[0], baseCurrency.getCode(), baseCurrency.getName(),
+                    quoteCurrency.getCode(), quoteCurrency.getName(), (BigDecimal) row[1], (LocalDateTime) row[2],
+                    (String) row[3]));
+        }
+        return page;
+    }
+
+    private record RateKey(PairIds pair, LocalDateTime date) {
+
+        static RateKey of(ExchangeRate exchangeRate) {
+            return new RateKey(new PairIds(exchangeRate.getBaseCurrency().getId(),
+                    exchangeRate.getQuoteCurrency().getId()), exchangeRate.getDate());
+        }
+    }
+}
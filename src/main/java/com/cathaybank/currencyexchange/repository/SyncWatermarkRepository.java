@@ -0,0 +1,15 @@
+package com.cathaybank.currencyexchange.repository;
+
+import com.cathaybank.currencyexchange.entity.SyncWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SyncWatermarkRepository extends JpaRepository<SyncWatermark, String> {
+
+    @Query("SELECT w FROM SyncWatermark w JOIN FETCH w.baseCurrency JOIN FETCH w.quoteCurrency")
+    List<SyncWatermark> findAllWithCurrencies();
+}
@@ -1,6 +1,7 @@
 package com.cathaybank.currencyexchange.scheduler;
 
-import com.cathaybank.currencyexchange.service.ExchangeRateService;
+import com.cathaybank.currencyexchange.dto.SyncJobDTO;
+import com.cathaybank.currencyexchange.service.SyncJobService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,7 +13,7 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class ExchangeRateSyncScheduler {
 
-    private final ExchangeRateService exchangeRateService;
+    private final SyncJobService syncJobService;
 
     @Value("${scheduler.exchange-rate.enabled:true}")
     private boolean enabled;
@@ -24,12 +25,12 @@ public class ExchangeRateSyncScheduler {
             return;
         }
 
-        log.info("Running scheduled exchange rate synchronization");
+        // Queued like a manual trigger, so a schedule that fires during a manual run collapses into it
         try {
-            exchangeRateService.syncExchangeRates();
-            log.info("Scheduled exchange rate synchronization completed successfully");
+            SyncJobDTO job = syncJobService.submit(SyncJobDTO.Trigger.SCHEDULED);
+            log.info("Scheduled exchange rate synchronization submitted as job {}", job.getId());
         } catch (Exception e) {
-            log.error("Error during scheduled exchange rate synchronization: {}", e.getMessage(), e);
+            log.error("Error submitting scheduled exchange rate synchronization: {}", e.getMessage(), e);
         }
     }
 }
\ No newline at end of file
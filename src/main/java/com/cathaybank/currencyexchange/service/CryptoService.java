@@ -1,8 +1,29 @@
 package com.cathaybank.currencyexchange.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 public interface CryptoService {
 
+    /**
+     * @return Base64 of a random IV followed by the ciphertext; encrypting the same text twice gives different results
+     */
     String encrypt(String data);
 
     String decrypt(String encryptedData);
-}
\ No newline at end of file
+
+    /**
+     * Wraps {@code target} so that everything written is encrypted on the way through, for exports too large to hold
+     * in memory. The IV is written to {@code target} immediately. Closing the returned stream writes the final
+     * block and closes {@code target}.
+     */
+    OutputStream encryptingStream(OutputStream target) throws IOException;
+
+    /**
+     * Reads the IV from {@code source} and returns a stream of the decrypted content. In GCM mode the cipher
+     * releases no plaintext until the authentication tag at the end has been verified, so the whole message is
+     * buffered; use CBC for streams that must be decrypted in constant memory.
+     */
+    InputStream decryptingStream(InputStream source) throws IOException;
+}
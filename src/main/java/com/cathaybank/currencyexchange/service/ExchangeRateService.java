@@ -1,17 +1,45 @@
 package com.cathaybank.currencyexchange.service;
 
+import com.cathaybank.currencyexchange.dto.CurrencyPair;
 import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.dto.ExchangeRatePageDTO;
+import com.cathaybank.currencyexchange.dto.LatestRatesBatchDTO;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ExchangeRateService {
 
-    List<ExchangeRateDTO> getExchangeRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate);
+    /**
+     * One page of the range in date order. Pass the previous page's {@code nextPageToken} to continue; every page
+     * costs the same however deep into the range it starts.
+     *
+     * @param pageSize rates per page, the configured default when {@code null} and capped at the configured maximum
+     */
+    ExchangeRatePageDTO getExchangeRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate,
+                                         String pageToken, Integer pageSize);
+
+    /**
+     * Pushes every rate in the range to {@code consumer} as it is read, without materialising the whole range.
+     *
+     * @return the number of rates streamed
+     */
+    long streamExchangeRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate,
+                             Consumer<ExchangeRateDTO> consumer);
 
     ExchangeRateDTO getLatestExchangeRate(String baseCode, String quoteCode);
 
+    /**
+     * Resolves the latest rate of every requested pair at once, reporting pairs without a rate instead of failing.
+     */
+    LatestRatesBatchDTO getLatestExchangeRates(List<CurrencyPair> pairs);
+
     ExchangeRateDTO createExchangeRate(ExchangeRateDTO exchangeRateDTO);
 
-    void syncExchangeRates();
+    /**
+     * Runs one sync on the calling thread and reports its progress to {@code listener}. Callers outside of tests go
+     * through {@link SyncJobService}, which runs it in the background and collapses concurrent triggers.
+     */
+    void syncExchangeRates(SyncProgressListener listener);
 }
\ No newline at end of file
@@ -1,10 +1,16 @@
 package com.cathaybank.currencyexchange.service;
 
 import com.cathaybank.currencyexchange.dto.OandaApiResponse;
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 
 public interface OandaApiService {
 
-    OandaApiResponse getExchangeRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+    /**
+     * Fetches the daily chart of one pair. The body is parsed as it streams in and only each day's close is kept,
+     * without binding it to an {@link OandaApiResponse}.
+     */
+    Mono<RateBatch> fetchRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,20 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * A source of daily exchange rates for the sync pipeline. The active implementation is chosen with
+ * {@code rate-provider.type}: {@code oanda} (default) calls the OANDA API, {@code replay} reads recorded data from disk.
+ */
+public interface RateProvider {
+
+    /**
+     * Rates of {@code baseCode}/{@code quoteCode} for the days from {@code startDate} to {@code endDate}, both
+     * inclusive. Days the source has no rate for are left out. Completes empty or with an error when the range
+     * could not be read; the sync then retries the range on its next run.
+     */
+    Mono<RateBatch> fetchRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,20 @@
+package com.cathaybank.currencyexchange.service;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+public interface RateStreamService {
+
+    /**
+     * Subscribes to the latest rate of each pair as syncs and manual creates commit, as {@code rate} events whose
+     * data is the JSON of an {@link com.cathaybank.currencyexchange.dto.ExchangeRateDTO}, starting with the current
+     * latest rate of each of those pairs.
+     *
+     * @param pairs pairs such as {@code USD/EUR} to receive, or empty for every stored pair
+     */
+    Flux<ServerSentEvent<String>> subscribe(List<String> pairs);
+
+    int getSubscriberCount();
+}
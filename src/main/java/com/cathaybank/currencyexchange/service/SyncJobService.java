@@ -0,0 +1,14 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.dto.SyncJobDTO;
+
+public interface SyncJobService {
+
+    /**
+     * Queues a sync run, or returns the job that is already queued or running so duplicate triggers collapse into
+     * one run.
+     */
+    SyncJobDTO submit(SyncJobDTO.Trigger trigger);
+
+    SyncJobDTO getJob(String id);
+}
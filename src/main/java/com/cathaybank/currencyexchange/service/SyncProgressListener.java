@@ -0,0 +1,27 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.dto.CurrencyPair;
+
+import java.util.List;
+
+/**
+ * Receives the progress of one sync run. Pair callbacks arrive from the fetching threads, concurrently.
+ */
+public interface SyncProgressListener {
+
+    SyncProgressListener NONE = new SyncProgressListener() {
+    };
+
+    default void onPlanned(List<CurrencyPair> pending, List<CurrencyPair> upToDate) {
+    }
+
+    /**
+     * @param windows the number of windows fetched successfully
+     * @param failed  whether a window failed, which ends the pair for this run
+     */
+    default void onPairFetched(CurrencyPair pair, int windows, boolean failed) {
+    }
+
+    default void onRatesSaved(int count) {
+    }
+}
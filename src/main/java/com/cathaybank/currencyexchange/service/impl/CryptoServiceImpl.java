@@ -7,36 +7,63 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Locale;
 
+/**
+ * AES encryption with a fresh random IV per message, written in front of the ciphertext.
+ * <p>
+ * The key is built once at startup and each thread reuses its own {@link Cipher}, so a call costs one
+ * {@code init} and the cipher work itself rather than a provider lookup. The mode is set by {@code crypto.aes.mode}:
+ * {@code GCM} (default, authenticated, 12-byte IV) or {@code CBC} (16-byte IV, PKCS#5 padding).
+ */
 @Service
 @Slf4j
 public class CryptoServiceImpl implements CryptoService {
 
     private static final String ALGORITHM = "AES";
-    private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+    private static final int GCM_TAG_BITS = 128;
 
-    @Value("${crypto.aes.key}")
-    private String secretKey;
+    private final Mode mode;
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Cipher> ciphers;
 
-    @Value("${crypto.aes.iv}")
-    private String initVector;
+    public CryptoServiceImpl(@Value("${crypto.aes.key}") String secretKey,
+                             @Value("${crypto.aes.mode:GCM}") String mode) {
+        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+            throw new IllegalStateException("crypto.aes.key must be 16, 24 or 32 bytes, got " + keyBytes.length);
+        }
+        this.mode = Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ciphers = ThreadLocal.withInitial(this::newCipher);
+    }
 
     @Override
     public String encrypt(String data) {
         try {
-            IvParameterSpec iv = new IvParameterSpec(initVector.getBytes(StandardCharsets.UTF_8));
-            Key key = generateKey();
-
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, key, iv);
+            byte[] iv = newIv();
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.ENCRYPT_MODE, key, mode.parameters(iv));
 
-            byte[] encryptedBytes = cipher.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(encryptedBytes);
+            byte[] plainBytes = data.getBytes(StandardCharsets.UTF_8);
+            byte[] message = Arrays.copyOf(iv, iv.length + cipher.getOutputSize(plainBytes.length));
+            int length = iv.length + cipher.doFinal(plainBytes, 0, plainBytes.length, message, iv.length);
+            return Base64.getEncoder().encodeToString(length == message.length ? message : Arrays.copyOf(message, length));
         } catch (Exception e) {
             log.error("Error encrypting data: {}", e.getMessage(), e);
             throw new ApiException("ENCRYPTION_ERROR", "Failed to encrypt data");
@@ -46,15 +73,14 @@ public class CryptoServiceImpl implements CryptoService {
     @Override
     public String decrypt(String encryptedData) {
         try {
-            IvParameterSpec iv = new IvParameterSpec(initVector.getBytes(StandardCharsets.UTF_8));
-            Key key = generateKey();
-
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, key, iv);
-
-            byte[] decodedBytes = Base64.getDecoder().decode(encryptedData);
-            byte[] decryptedBytes = cipher.doFinal(decodedBytes);
+            byte[] message = Base64.getDecoder().decode(encryptedData);
+            if (message.length < mode.ivLength) {
+                throw new IllegalArgumentException("Message shorter than its IV");
+            }
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, mode.parameters(message, 0, mode.ivLength));
 
+            byte[] decryptedBytes = cipher.doFinal(message, mode.ivLength, message.length - mode.ivLength);
             return new String(decryptedBytes, StandardCharsets.UTF_8);
         } catch (Exception e) {
             log.error("Error decrypting data: {}", e.getMessage(), e);
@@ -62,8 +88,69 @@ public class CryptoServiceImpl implements CryptoService {
         }
     }
 
-    private Key generateKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return new SecretKeySpec(keyBytes, ALGORITHM);
+    @Override
+    public OutputStream encryptingStream(OutputStream target) throws IOException {
+        byte[] iv = newIv();
+        Cipher cipher = newCipher();
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, key, mode.parameters(iv));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to initialise encryption", e);
+        }
+        target.write(iv);
+        return new CipherOutputStream(target, cipher);
+    }
+
+    @Override
+    public InputStream decryptingStream(InputStream source) throws IOException {
+        byte[] iv = source.readNBytes(mode.ivLength);
+        if (iv.length < mode.ivLength) {
+            throw new IOException("Encrypted stream ended inside its IV");
+        }
+        Cipher cipher = newCipher();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, mode.parameters(iv));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to initialise decryption", e);
+        }
+        return new CipherInputStream(source, cipher);
+    }
+
+    private byte[] newIv() {
+        byte[] iv = new byte[mode.ivLength];
+        random.nextBytes(iv);
+        return iv;
+    }
+
+    // Streams get their own cipher: they stay open across calls, while the thread-local one is re-initialised per call
+    private Cipher newCipher() {
+        try {
+            return Cipher.getInstance(mode.transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES cipher " + mode.transformation + " is not available", e);
+        }
+    }
+
+    private enum Mode {
+        GCM("AES/GCM/NoPadding", 12),
+        CBC("AES/CBC/PKCS5Padding", 16);
+
+        private final String transformation;
+        private final int ivLength;
+
+        Mode(String transformation, int ivLength) {
+            this.transformation = transformation;
+            this.ivLength = ivLength;
+        }
+
+        AlgorithmParameterSpec parameters(byte[] iv) {
+            return parameters(iv, 0, iv.length);
+        }
+
+        AlgorithmParameterSpec parameters(byte[] buffer, int offset, int length) {
+            return this == GCM
+                    ? new GCMParameterSpec(GCM_TAG_BITS, buffer, offset, length)
+                    : new IvParameterSpec(buffer, offset, length);
+        }
     }
-}
\ No newline at end of file
+}
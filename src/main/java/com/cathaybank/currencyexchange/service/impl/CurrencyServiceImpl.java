@@ -1,13 +1,16 @@
 package com.cathaybank.currencyexchange.service.impl;
 
+import com.cathaybank.currencyexchange.cache.CurrencyCache;
 import com.cathaybank.currencyexchange.dto.CurrencyDTO;
 import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
 import com.cathaybank.currencyexchange.exception.ResourceNotFoundException;
 import com.cathaybank.currencyexchange.repository.CurrencyRepository;
 import com.cathaybank.currencyexchange.service.CurrencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,30 +24,29 @@ import java.util.stream.Collectors;
 public class CurrencyServiceImpl implements CurrencyService {
 
     private final CurrencyRepository currencyRepository;
+    private final CurrencyCache currencyCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    @Transactional(readOnly = true)
     public List<CurrencyDTO> getAllCurrencies() {
         log.debug("Getting all currencies ordered by code");
-        return currencyRepository.findAllByOrderByCodeAsc().stream()
+        return currencyCache.findAll().stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public CurrencyDTO getCurrencyById(String id) {
         log.debug("Getting currency by id: {}", id);
-        return currencyRepository.findById(id)
+        return currencyCache.findById(id)
                 .map(this::mapToDTO)
                 .orElseThrow(() -> new ResourceNotFoundException("Currency not found with id: " + id));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public CurrencyDTO getCurrencyByCode(String code) {
         log.debug("Getting currency by code: {}", code);
-        return currencyRepository.findByCode(code)
+        return currencyCache.findByCode(code)
                 .map(this::mapToDTO)
                 .orElseThrow(() -> new ResourceNotFoundException("Currency not found with code: " + code));
     }
@@ -59,6 +61,7 @@ public class CurrencyServiceImpl implements CurrencyService {
 
         Currency currency = mapToEntity(currencyDTO);
         currency = currencyRepository.save(currency);
+        eventPublisher.publishEvent(new CurrenciesChangedEvent(currency.getId()));
         return mapToDTO(currency);
     }
 
@@ -80,6 +83,7 @@ public class CurrencyServiceImpl implements CurrencyService {
         currency.setUpdatedBy("SYSTEM"); // In a real app, this would come from authentication
 
         currency = currencyRepository.save(currency);
+        eventPublisher.publishEvent(new CurrenciesChangedEvent(currency.getId()));
         return mapToDTO(currency);
     }
 
@@ -91,12 +95,12 @@ public class CurrencyServiceImpl implements CurrencyService {
             throw new ResourceNotFoundException("Currency not found with id: " + id);
         }
         currencyRepository.deleteById(id);
+        eventPublisher.publishEvent(new CurrenciesChangedEvent(id));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public boolean existsByCode(String code) {
-        return currencyRepository.existsByCode(code);
+        return currencyCache.findByCode(code).isPresent();
     }
 
     private CurrencyDTO mapToDTO(Currency currency) {
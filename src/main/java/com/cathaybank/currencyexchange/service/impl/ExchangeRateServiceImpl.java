@@ -1,29 +1,61 @@
 package com.cathaybank.currencyexchange.service.impl;
 
+import com.cathaybank.currencyexchange.cache.CurrencyCache;
+import com.cathaybank.currencyexchange.cache.LatestRateSnapshot;
+import com.cathaybank.currencyexchange.cache.RateHistoryStore;
+import com.cathaybank.currencyexchange.dto.CurrencyPair;
 import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
-import com.cathaybank.currencyexchange.dto.OandaApiResponse;
+import com.cathaybank.currencyexchange.dto.ExchangeRatePageDTO;
+import com.cathaybank.currencyexchange.dto.LatestRatesBatchDTO;
+import com.cathaybank.currencyexchange.dto.RateBatch;
 import com.cathaybank.currencyexchange.entity.Currency;
 import com.cathaybank.currencyexchange.entity.ExchangeRate;
+import com.cathaybank.currencyexchange.entity.SyncWatermark;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import com.cathaybank.currencyexchange.exception.ApiException;
 import com.cathaybank.currencyexchange.exception.ResourceNotFoundException;
-import com.cathaybank.currencyexchange.repository.CurrencyRepository;
 import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepositoryCustom.PairIds;
+import com.cathaybank.currencyexchange.repository.SyncWatermarkRepository;
 import com.cathaybank.currencyexchange.service.ExchangeRateService;
-import com.cathaybank.currencyexchange.service.OandaApiService;
+import com.cathaybank.currencyexchange.service.RateProvider;
+import com.cathaybank.currencyexchange.service.SyncProgressListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -31,167 +63,446 @@ import java.util.stream.Collectors;
 public class ExchangeRateServiceImpl implements ExchangeRateService {
 
     private final ExchangeRateRepository exchangeRateRepository;
-    private final CurrencyRepository currencyRepository;
-    private final OandaApiService oandaApiService;
-
-    private static final DateTimeFormatter API_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private final CurrencyCache currencyCache;
+    private final RateProvider rateProvider;
+    private final LatestRateSnapshot latestRateSnapshot;
+    private final RateHistoryStore rateHistoryStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SyncWatermarkRepository syncWatermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
     private static final List<String> BASE_CURRENCIES = Arrays.asList("USD", "EUR", "JPY", "GBP");
 
+    // Every other currency is fetched against this one only; the remaining pairs are derived in the snapshot
+    private static final String PIVOT_CURRENCY = "USD";
+
+    @Value("${api.oanda.max-concurrency:4}")
+    private int maxConcurrency;
+
+    // How far back a pair without a watermark starts
+    @Value("${sync.exchange-rate.initial-lookback-days:1}")
+    private int initialLookbackDays;
+
+    @Value("${sync.exchange-rate.max-window-days:180}")
+    private int maxWindowDays;
+
+    @Value("${exchange-rate.page.default-size:500}")
+    private int defaultPageSize;
+
+    @Value("${exchange-rate.page.max-size:5000}")
+    private int maxPageSize;
+
     @Override
-    @Transactional(readOnly = true)
-    public List<ExchangeRateDTO> getExchangeRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate) {
-        log.debug("Getting exchange rates: base={}, quote={}, startDate={}, endDate={}",
-                baseCode, quoteCode, startDate, endDate);
+    public ExchangeRatePageDTO getExchangeRates(String baseCode, String quoteCode, LocalDate startDate,
+                                                LocalDate endDate, String pageToken, Integer pageSize) {
+        log.debug("Getting exchange rates: base={}, quote={}, startDate={}, endDate={}, pageToken={}, pageSize={}",
+                baseCode, quoteCode, startDate, endDate, pageToken, pageSize);
+
+        int limit = pageSize(pageSize);
+        LocalDateTime afterDate = pageToken == null ? null : decodePageToken(pageToken);
+        Optional<Currency> baseCurrency = currencyCache.findByCode(baseCode);
+        Optional<Currency> quoteCurrency = currencyCache.findByCode(quoteCode);
+        if (baseCurrency.isEmpty() || quoteCurrency.isEmpty()) {
+            return ExchangeRatePageDTO.builder().rates(List.of()).build();
+        }
+
+        // One row beyond the page tells whether another page follows, without a count query. The rate history store
+        // answers without a database round trip; pairs it does not hold are read from the database.
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.atTime(23, 59, 59);
+        List<ExchangeRateDTO> rates = rateHistoryStore.findPage(baseCurrency.get(), quoteCurrency.get(),
+                        from, afterDate, to, limit + 1)
+                .orElseGet(() -> exchangeRateRepository.findPage(baseCurrency.get(), quoteCurrency.get(),
+                        from, afterDate, to, limit + 1));
+        String nextPageToken = null;
+        if (rates.size() > limit) {
+            rates.remove(limit);
+            nextPageToken = encodePageToken(rates.get(limit - 1).getDate());
+        }
+        return ExchangeRatePageDTO.builder()
+                .rates(rates)
+                .nextPageToken(nextPageToken)
+                .build();
+    }
 
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        return Math.min(requested, maxPageSize);
+    }
 
-        return exchangeRateRepository.findByBaseCurrencyCodeAndQuoteCurrencyCodeAndDateBetween(
-                        baseCode, quoteCode, startDateTime, endDateTime)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    // The token is the date of the last rate on the page: a pair has at most one rate per date, so the date alone
+    // is a unique, index-ordered cursor. The encoding is not part of the API and may change.
+    private static String encodePageToken(LocalDateTime lastDate) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("1:" + lastDate).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static LocalDateTime decodePageToken(String pageToken) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.US_ASCII);
+            if (decoded.startsWith("1:")) {
+                return LocalDateTime.parse(decoded.substring(2));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Reported below
+        }
+        throw new ApiException("INVALID_PAGE_TOKEN", "Invalid page token: " + pageToken);
     }
 
     @Override
     @Transactional(readOnly = true)
+    public long streamExchangeRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate,
+                                    Consumer<ExchangeRateDTO> consumer) {
+        log.debug("Streaming exchange rates: base={}, quote={}, startDate={}, endDate={}",
+                baseCode, quoteCode, startDate, endDate);
+
+        long count = 0;
+        try (Stream<ExchangeRateDTO> rates = exchangeRateRepository
+                .streamByBaseCurrencyCodeAndQuoteCurrencyCodeAndDateBetween(
+                        baseCode, quoteCode, startDate.atStartOfDay(), endDate.atTime(23, 59, 59))) {
+            Iterator<ExchangeRateDTO> iterator = rates.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
     public ExchangeRateDTO getLatestExchangeRate(String baseCode, String quoteCode) {
         log.debug("Getting latest exchange rate: base={}, quote={}", baseCode, quoteCode);
 
+        if (latestRateSnapshot.isLoaded()) {
+            return latestRateSnapshot.find(baseCode, quoteCode)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Exchange rate not found for base=" + baseCode + " and quote=" + quoteCode));
+        }
+
         return exchangeRateRepository.findLatestByBaseCurrencyCodeAndQuoteCurrencyCode(baseCode, quoteCode)
-                .map(this::mapToDTO)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Exchange rate not found for base=" + baseCode + " and quote=" + quoteCode));
     }
 
+    @Override
+    public LatestRatesBatchDTO getLatestExchangeRates(List<CurrencyPair> pairs) {
+        log.debug("Getting latest exchange rates for {} pairs", pairs.size());
+
+        Map<String, ExchangeRateDTO> found;
+        if (latestRateSnapshot.isLoaded()) {
+            found = new HashMap<>();
+            pairs.forEach(pair -> latestRateSnapshot.find(pair.getBaseCode(), pair.getQuoteCode())
+                    .ifPresent(rate -> found.put(pair.key(), rate)));
+        } else {
+            // A pair with an unknown currency has no rate, so it is left out of the query
+            Set<PairIds> ids = new LinkedHashSet<>();
+            pairs.forEach(pair -> currencyCache.findByCode(pair.getBaseCode())
+                    .flatMap(base -> currencyCache.findByCode(pair.getQuoteCode())
+                            .map(quote -> new PairIds(base.getId(), quote.getId())))
+                    .ifPresent(ids::add));
+            found = exchangeRateRepository.findLatestForPairs(ids).stream()
+                    .collect(Collectors.toMap(rate -> LatestRateSnapshot.pairKey(
+                            rate.getBaseCurrencyCode(), rate.getQuoteCurrencyCode()), Function.identity(),
+                            (first, second) -> first));
+        }
+
+        List<ExchangeRateDTO> rates = new ArrayList<>(found.size());
+        List<CurrencyPair> missing = new ArrayList<>();
+        for (CurrencyPair pair : pairs) {
+            ExchangeRateDTO rate = found.get(pair.key());
+            if (rate != null) {
+                rates.add(rate);
+            } else {
+                missing.add(pair);
+            }
+        }
+        return LatestRatesBatchDTO.builder()
+                .rates(rates)
+                .missing(missing)
+                .build();
+    }
+
     @Override
     @Transactional
     public ExchangeRateDTO createExchangeRate(ExchangeRateDTO exchangeRateDTO) {
         log.debug("Creating exchange rate: {}", exchangeRateDTO);
 
-        Currency baseCurrency = currencyRepository.findByCode(exchangeRateDTO.getBaseCurrencyCode())
+        Currency baseCurrency = currencyCache.findByCode(exchangeRateDTO.getBaseCurrencyCode())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Base currency not found: " + exchangeRateDTO.getBaseCurrencyCode()));
 
-        Currency quoteCurrency = currencyRepository.findByCode(exchangeRateDTO.getQuoteCurrencyCode())
+        Currency quoteCurrency = currencyCache.findByCode(exchangeRateDTO.getQuoteCurrencyCode())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Quote currency not found: " + exchangeRateDTO.getQuoteCurrencyCode()));
 
-        LocalDateTime date = exchangeRateDTO.getDate();
-
-        // Check if exchange rate already exists for this date and currency pair
-        exchangeRateRepository.findByBaseCurrencyAndQuoteCurrencyAndDate(baseCurrency, quoteCurrency, date)
-                .ifPresent(er -> {
-                    throw new IllegalArgumentException("Exchange rate already exists for the specified date and currency pair");
-                });
-
         ExchangeRate exchangeRate = ExchangeRate.builder()
                 .baseCurrency(baseCurrency)
                 .quoteCurrency(quoteCurrency)
                 .rate(exchangeRateDTO.getRate())
-                .date(date)
+                .date(exchangeRateDTO.getDate())
                 .source(exchangeRateDTO.getSource() != null ? exchangeRateDTO.getSource() : "MANUAL")
                 .build();
 
-        exchangeRate = exchangeRateRepository.save(exchangeRate);
-        return mapToDTO(exchangeRate);
+        // The unique (base, quote, date) index rejects duplicates, so there is no need to read before writing
+        try {
+            exchangeRate = exchangeRateRepository.saveAndFlush(exchangeRate);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Exchange rate already exists for the specified date and currency pair");
+        }
+        ExchangeRateDTO created = mapToDTO(exchangeRate);
+        eventPublisher.publishEvent(new ExchangeRatesUpdatedEvent(List.of(created)));
+        return created;
     }
 
+    /**
+     * Fetches, per pair, only the days after its watermark. A pair that is up to date costs no upstream call; a long
+     * gap is fetched in windows of at most {@code sync.exchange-rate.max-window-days}, oldest first, and a failed
+     * window stops that pair so its watermark never skips past a hole.
+     * <p>
+     * No transaction spans the upstream calls. Each pair is committed on its own as soon as its responses are in,
+     * rates and watermark together, so a database connection is held only for that pair's insert batch. The hold
+     * time is recorded as {@code exchange.rate.sync.connection.hold}.
+     */
     @Override
-    @Transactional
-    public void syncExchangeRates() {
+    public void syncExchangeRates(SyncProgressListener listener) {
         log.info("Starting exchange rate synchronization");
 
         LocalDate today = LocalDate.now();
-        LocalDate yesterday = today.minusDays(1);
+        Map<String, SyncWatermark> watermarks = syncWatermarkRepository.findAllWithCurrencies().stream()
+                .collect(Collectors.toMap(watermark -> LatestRateSnapshot.pairKey(
+                        watermark.getBaseCurrency().getCode(), watermark.getQuoteCurrency().getCode()),
+                        Function.identity()));
+
+        Map<CurrencyPair, List<SyncWindow>> pending = new LinkedHashMap<>();
+        List<CurrencyPair> upToDate = new ArrayList<>();
+        for (CurrencyPair pair : syncPairs()) {
+            SyncWatermark watermark = watermarks.get(pair.key());
+            LocalDate from = watermark != null
+                    ? watermark.getSyncedThrough().plusDays(1)
+                    : today.minusDays(initialLookbackDays);
+            if (from.isAfter(today)) {
+                upToDate.add(pair);
+            } else {
+                pending.put(pair, SyncWindow.split(from, today, maxWindowDays));
+            }
+        }
+        log.info("{} pairs need syncing, {} are up to date, {} upstream requests",
+                pending.size(), upToDate.size(), pending.values().stream().mapToInt(List::size).sum());
+        listener.onPlanned(List.copyOf(pending.keySet()), upToDate);
+
+        // Pairs are fetched concurrently and a pair's windows in order. Each pair is handed to this thread as soon
+        // as it is complete, so commits overlap the remaining fetches and never run on the HTTP client's threads.
+        Flux<PairResponses> fetched = Flux.fromIterable(pending.entrySet())
+                .flatMap(entry -> fetchWindows(entry.getKey(), entry.getValue())
+                        .doOnNext(responses -> listener.onPairFetched(responses.pair(), responses.windows().size(),
+                                responses.windows().size() < entry.getValue().size())), maxConcurrency);
+
+        int pairs = 0;
+        int saved = 0;
+        for (PairResponses pairResponses : fetched.toIterable()) {
+            pairs++;
+            saved += savePair(pairResponses, watermarks.get(pairResponses.pair().key()), today, listener);
+        }
 
-        // Get quotes for multiple base currencies
-        for (String baseCode : BASE_CURRENCIES) {
-            // For demo purposes, we're only getting rates against USD, EUR, and JPY
-            for (String quoteCode : Arrays.asList("USD", "EUR", "JPY", "GBP")) {
-                // Skip same currency pairs
-                if (baseCode.equals(quoteCode)) {
-                    continue;
-                }
+        log.info("Exchange rate synchronization completed: saved {} exchange rates from {} pairs", saved, pairs);
+    }
 
-                try {
-                    OandaApiResponse response = oandaApiService.getExchangeRates(
-                            baseCode, quoteCode, yesterday, today);
+    private int savePair(PairResponses pairResponses, SyncWatermark watermark, LocalDate today,
+                         SyncProgressListener listener) {
+        CurrencyPair pair = pairResponses.pair();
 
-                    saveExchangeRatesFromResponse(response);
-                } catch (Exception e) {
-                    log.error("Error syncing exchange rates for {}/{}: {}", baseCode, quoteCode, e.getMessage(), e);
-                }
+        // Parsing is CPU only and stays outside the transaction
+        List<ExchangeRate> exchangeRates = new ArrayList<>();
+        LocalDate syncedThrough = null;
+        for (FetchedWindow window : pairResponses.windows()) {
+            List<ExchangeRate> parsed;
+            try {
+                parsed = toExchangeRates(window.rates());
+            } catch (Exception e) {
+                log.error("Error processing exchange rates for {} from {} to {}: {}",
+                        pair.key(), window.window().start(), window.window().end(), e.getMessage(), e);
+                listener.onPairFetched(pair, pairResponses.windows().indexOf(window), true);
+                break;
             }
+            exchangeRates.addAll(parsed);
+            syncedThrough = max(syncedThrough, completeThrough(window.window(), parsed, today));
+        }
+        if (syncedThrough == null) {
+            return 0;
         }
 
-        log.info("Exchange rate synchronization completed");
+        LocalDate completeThrough = syncedThrough;
+        long start = System.nanoTime();
+        try {
+            List<ExchangeRateDTO> synced = transactionTemplate.execute(status -> {
+                List<ExchangeRateDTO> inserted = exchangeRates.isEmpty() ? List.of()
+                        : exchangeRateRepository.insertMissing(exchangeRates).stream()
+                                .map(this::mapToDTO)
+                                .collect(Collectors.toList());
+                advanceWatermark(pair, watermark, completeThrough);
+                if (!inserted.isEmpty()) {
+                    // Delivered to the snapshot after this pair commits
+                    eventPublisher.publishEvent(new ExchangeRatesUpdatedEvent(inserted));
+                }
+                return inserted;
+            });
+            log.debug("Saved {} exchange rates for {}", synced.size(), pair.key());
+            listener.onRatesSaved(synced.size());
+            return synced.size();
+        } catch (Exception e) {
+            log.error("Error saving exchange rates for {}: {}", pair.key(), e.getMessage(), e);
+            listener.onPairFetched(pair, pairResponses.windows().size(), true);
+            return 0;
+        } finally {
+            connectionHoldTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
-    private void saveExchangeRatesFromResponse(OandaApiResponse response) {
-        if (response == null || response.getMeta() == null || response.getData() == null) {
-            log.warn("Invalid API response received");
-            return;
-        }
+    // Compare with hikaricp.connections.usage, which covers every borrower rather than just the sync
+    private Timer connectionHoldTimer() {
+        return Timer.builder("exchange.rate.sync.connection.hold")
+                .description("Time a pair's sync transaction holds a database connection")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
-        String baseCode = response.getMeta().getBase();
-        String quoteCode = response.getMeta().getQuote();
+    /**
+     * Loads the latest rate of every pair into the in-memory snapshot once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void refreshLatestRateSnapshot() {
+        latestRateSnapshot.reload();
+    }
 
-        Currency baseCurrency = currencyRepository.findByCode(baseCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Base currency not found: " + baseCode));
+    private Mono<PairResponses> fetchWindows(CurrencyPair pair, List<SyncWindow> windows) {
+        return Flux.fromIterable(windows)
+                .concatMap(window -> rateProvider.fetchRates(
+                                pair.getBaseCode(), pair.getQuoteCode(), window.start(), window.end())
+                        .map(rates -> Optional.of(new FetchedWindow(window, rates)))
+                        .onErrorResume(e -> {
+                            log.error("Error syncing exchange rates for {} from {} to {}: {}",
+                                    pair.key(), window.start(), window.end(), e.getMessage(), e);
+                            return Mono.just(Optional.empty());
+                        })
+                        .defaultIfEmpty(Optional.empty()))
+                // The first failed window ends the pair; later windows are not requested
+                .takeWhile(Optional::isPresent)
+                .map(Optional::get)
+                .collectList()
+                .map(fetched -> new PairResponses(pair, fetched));
+    }
 
-        Currency quoteCurrency = currencyRepository.findByCode(quoteCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Quote currency not found: " + quoteCode));
+    /**
+     * Days before today are final once their window has been fetched, even if the upstream had no rate for some
+     * of them; today only counts once its rate has arrived.
+     */
+    private static LocalDate completeThrough(SyncWindow window, List<ExchangeRate> parsed, LocalDate today) {
+        LocalDate through = window.end().isBefore(today) ? window.end() : today.minusDays(1);
+        for (ExchangeRate rate : parsed) {
+            LocalDate date = rate.getDate().toLocalDate();
+            if (!date.isAfter(today)) {
+                through = max(through, date);
+            }
+        }
+        return through;
+    }
 
-        List<ExchangeRate> exchangeRates = new ArrayList<>();
+    private void advanceWatermark(CurrencyPair pair, SyncWatermark watermark, LocalDate syncedThrough) {
+        if (syncedThrough == null) {
+            return;
+        }
+        if (watermark == null) {
+            Optional<Currency> baseCurrency = currencyCache.findByCode(pair.getBaseCode());
+            Optional<Currency> quoteCurrency = currencyCache.findByCode(pair.getQuoteCode());
+            if (baseCurrency.isPresent() && quoteCurrency.isPresent()) {
+                syncWatermarkRepository.save(SyncWatermark.builder()
+                        .baseCurrency(baseCurrency.get())
+                        .quoteCurrency(quoteCurrency.get())
+                        .syncedThrough(syncedThrough)
+                        .build());
+            }
+        } else if (syncedThrough.isAfter(watermark.getSyncedThrough())) {
+            watermark.setSyncedThrough(syncedThrough);
+            syncWatermarkRepository.save(watermark);
+        }
+    }
 
-        for (Map.Entry<String, List<OandaApiResponse.QuoteData>> entry : response.getData().entrySet()) {
-            String dateStr = entry.getKey();
-            List<OandaApiResponse.QuoteData> quotes = entry.getValue();
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
 
-            if (quotes == null || quotes.isEmpty()) {
-                continue;
+    private List<CurrencyPair> syncPairs() {
+        // For demo purposes, we only sync the cross matrix of the major base currencies
+        List<CurrencyPair> pairs = new ArrayList<>();
+        for (String baseCode : BASE_CURRENCIES) {
+            for (String quoteCode : BASE_CURRENCIES) {
+                if (!baseCode.equals(quoteCode)) {
+                    pairs.add(new CurrencyPair(baseCode, quoteCode));
+                }
             }
+        }
+        // One leg per remaining currency is enough for the snapshot to triangulate all other pairs
+        for (Currency currency : currencyCache.findAll()) {
+            if (!BASE_CURRENCIES.contains(currency.getCode())) {
+                pairs.add(new CurrencyPair(PIVOT_CURRENCY, currency.getCode()));
+            }
+        }
+        return pairs;
+    }
 
-            OandaApiResponse.QuoteData quote = quotes.get(0);
+    /**
+     * An inclusive range of days requested from the upstream in one call.
+     */
+    record SyncWindow(LocalDate start, LocalDate end) {
 
-            try {
-                LocalDate date = LocalDate.parse(dateStr, API_DATE_FORMATTER);
-                LocalDateTime dateTime = date.atTime(12, 0); // Noon time
+        static List<SyncWindow> split(LocalDate from, LocalDate to, int maxDays) {
+            List<SyncWindow> windows = new ArrayList<>();
+            for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(Math.max(1, maxDays))) {
+                LocalDate end = start.plusDays(Math.max(1, maxDays) - 1L);
+                windows.add(new SyncWindow(start, end.isAfter(to) ? to : end));
+            }
+            return windows;
+        }
+    }
 
-                BigDecimal rate = new BigDecimal(quote.getClose());
+    private record FetchedWindow(SyncWindow window, RateBatch rates) {
+    }
 
-                // Check if exchange rate already exists
-                if (exchangeRateRepository.findByBaseCurrencyAndQuoteCurrencyAndDate(
-                        baseCurrency, quoteCurrency, dateTime).isPresent()) {
-                    log.debug("Exchange rate already exists for {}/{} on {}", baseCode, quoteCode, dateStr);
-                    continue;
-                }
+    private record PairResponses(CurrencyPair pair, List<FetchedWindow> windows) {
+    }
 
-                ExchangeRate exchangeRate = ExchangeRate.builder()
-                        .baseCurrency(baseCurrency)
-                        .quoteCurrency(quoteCurrency)
-                        .rate(rate)
-                        .date(dateTime)
-                        .source("OANDA")
-                        .build();
-
-                exchangeRates.add(exchangeRate);
-            } catch (DateTimeParseException e) {
-                log.warn("Invalid date format: {}", dateStr);
-            } catch (NumberFormatException e) {
-                log.warn("Invalid rate format: {}", quote.getClose());
-            }
+    // Package-private for the JMH benchmarks under src/jmh/java
+    List<ExchangeRate> toExchangeRates(RateBatch rates) {
+        Currency baseCurrency = currencyCache.findByCode(rates.getBaseCode())
+                .orElseThrow(() -> new ResourceNotFoundException("Base currency not found: " + rates.getBaseCode()));
+
+        Currency quoteCurrency = currencyCache.findByCode(rates.getQuoteCode())
+                .orElseThrow(() -> new ResourceNotFoundException("Quote currency not found: " + rates.getQuoteCode()));
+
+        // Rates already stored are skipped by the unique index when inserting
+        List<ExchangeRate> exchangeRates = new ArrayList<>(rates.getSize());
+        for (int i = 0; i < rates.getSize(); i++) {
+            exchangeRates.add(ExchangeRate.builder()
+                    .baseCurrency(baseCurrency)
+                    .quoteCurrency(quoteCurrency)
+                    .rate(rates.rate(i))
+                    .date(rates.date(i).atTime(12, 0)) // Noon time
+                    .source(rates.getSource())
+                    .build());
         }
 
-        if (!exchangeRates.isEmpty()) {
-            exchangeRateRepository.saveAll(exchangeRates);
-            log.info("Saved {} exchange rates for {}/{}", exchangeRates.size(), baseCode, quoteCode);
-        }
+        log.debug("Parsed {} exchange rates for {}/{}", exchangeRates.size(), rates.getBaseCode(), rates.getQuoteCode());
+        return exchangeRates;
     }
 
-    private ExchangeRateDTO mapToDTO(ExchangeRate exchangeRate) {
+    ExchangeRateDTO mapToDTO(ExchangeRate exchangeRate) {
         return ExchangeRateDTO.builder()
                 .id(exchangeRate.getId())
                 .baseCurrencyCode(exchangeRate.getBaseCurrency().getCode())
@@ -1,82 +1,201 @@
 package com.cathaybank.currencyexchange.service.impl;
 
-import com.cathaybank.currencyexchange.dto.OandaApiResponse;
+import com.cathaybank.currencyexchange.config.OandaResilienceConfig;
+import com.cathaybank.currencyexchange.dto.RateBatch;
 import com.cathaybank.currencyexchange.service.OandaApiService;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
+/**
+ * OANDA client with the resilience layer around each request, innermost first: the per-host circuit breaker, which
+ * fails fast while the upstream is down instead of letting every pair wait out {@code api.oanda.request-timeout};
+ * the bulkhead, which caps concurrent calls; optional hedging, which sends a second copy of a request that is
+ * slower than the recent p95; and a jittered exponential retry for failures the upstream may recover from.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OandaApiServiceImpl implements OandaApiService {
 
-    @Value("${api.oanda.base-url}")
-    private String baseUrl;
+    private final WebClient oandaWebClient;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker oandaCircuitBreaker;
+    private final Bulkhead oandaBulkhead;
 
-    @Value("${api.oanda.request-timeout:5000}")
-    private int requestTimeout;
-
-    private final WebClient.Builder webClientBuilder;
+    private static final String SOURCE = "OANDA";
+    private static final double HEDGE_PERCENTILE = 0.95;
 
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    // Attempts per request, the first one included
+    @Value("${api.oanda.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${api.oanda.retry.initial-backoff:200}")
+    private long initialBackoff;
+
+    @Value("${api.oanda.retry.max-backoff:2000}")
+    private long maxBackoff;
+
+    @Value("${api.oanda.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    // Successful attempts needed before the p95 is trusted as a hedge delay
+    @Value("${api.oanda.hedge.min-samples:20}")
+    private int hedgeMinSamples;
+
+    @Value("${api.oanda.hedge.min-delay:50}")
+    private long hedgeMinDelay;
+
     @Override
-    public OandaApiResponse getExchangeRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate) {
+    public Mono<RateBatch> fetchRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate) {
+        return execute(baseCode, quoteCode, startDate, endDate, response -> OandaChartParser.parse(
+                response.bodyToFlux(DataBuffer.class), baseCode, quoteCode, SOURCE));
+    }
+
+    private <T> Mono<T> execute(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate,
+                                Function<WebClient.ResponseSpec, Mono<T>> body) {
         log.info("Fetching exchange rates from OANDA: base={}, quote={}, startDate={}, endDate={}",
                 baseCode, quoteCode, startDate, endDate);
 
         String formattedStartDate = startDate.format(dateFormatter);
         String formattedEndDate = endDate.format(dateFormatter);
 
-        WebClient webClient = webClientBuilder
-                .baseUrl(baseUrl)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .filter(logRequest())
-                .filter(logResponse())
-                .build();
+        // One upstream call; the bulkhead sits outside the breaker so a rejection is not recorded against the host
+        Mono<T> attempt = Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return body.apply(request(baseCode, quoteCode, formattedStartDate, formattedEndDate))
+                            .doOnSuccess(response ->
+                                    attemptTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+                })
+                .transformDeferred(CircuitBreakerOperator.of(oandaCircuitBreaker))
+                .transformDeferred(BulkheadOperator.of(oandaBulkhead));
+
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return hedged(attempt)
+                    .retryWhen(retry(baseCode, quoteCode))
+                    .doOnEach(signal -> {
+                        if (signal.isOnComplete() || signal.isOnError()) {
+                            sample.stop(requestTimer(baseCode, quoteCode, signal.isOnError() ? "error" : "success"));
+                        }
+                    })
+                    .doOnCancel(() -> sample.stop(requestTimer(baseCode, quoteCode, "cancelled")));
+        });
+    }
 
-        OandaApiResponse response = webClient.get()
+    private WebClient.ResponseSpec request(String baseCode, String quoteCode, String startDate, String endDate) {
+        return oandaWebClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/currencies")
                         .queryParam("base", baseCode)
                         .queryParam("quote", quoteCode)
                         .queryParam("data_type", "chart")
-                        .queryParam("start_date", formattedStartDate)
-                        .queryParam("end_date", formattedEndDate)
+                        .queryParam("start_date", startDate)
+                        .queryParam("end_date", endDate)
                         .build())
-                .retrieve()
-                .bodyToMono(OandaApiResponse.class)
-                .block();
+                .retrieve();
+    }
 
-        log.debug("Received response from OANDA: {}", response);
-        return response;
+    /**
+     * Races the attempt against a copy started after the hedge delay and keeps the first response; the loser is
+     * cancelled. A primary that fails before the delay is still hedged, which then acts as an early retry.
+     */
+    private <T> Mono<T> hedged(Mono<T> attempt) {
+        Duration delay = hedgeDelay();
+        if (delay == null) {
+            return attempt;
+        }
+        Mono<T> hedge = Mono.delay(delay)
+                .then(attempt.doOnSubscribe(subscription -> hedgeCounter().increment()));
+        return Mono.firstWithValue(attempt, hedge)
+                .onErrorMap(NoSuchElementException.class, OandaApiServiceImpl::firstFailure);
     }
 
-    private ExchangeFilterFunction logRequest() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            log.debug("Request: {} {}", clientRequest.method(), clientRequest.url());
-            clientRequest.headers().forEach((name, values) ->
-                    values.forEach(value -> log.debug("{}={}", name, value)));
-            return Mono.just(clientRequest);
-        });
+    private Duration hedgeDelay() {
+        if (!hedgeEnabled) {
+            return null;
+        }
+        Timer attempts = attemptTimer();
+        if (attempts.count() < hedgeMinSamples) {
+            return null;
+        }
+        for (ValueAtPercentile percentile : attempts.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == HEDGE_PERCENTILE) {
+                return Duration.ofMillis(Math.max(hedgeMinDelay, (long) percentile.value(TimeUnit.MILLISECONDS)));
+            }
+        }
+        return null;
     }
 
-    private ExchangeFilterFunction logResponse() {
-        return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
-            log.debug("Response status: {}", clientResponse.statusCode());
-            clientResponse.headers().asHttpHeaders().forEach((name, values) ->
-                    values.forEach(value -> log.debug("{}={}", name, value)));
-            return Mono.just(clientResponse);
-        });
+    // When both copies fail, report the primary's error so the retry filter sees the real cause
+    private static Throwable firstFailure(NoSuchElementException e) {
+        List<Throwable> failures = Exceptions.unwrapMultiple(e.getCause());
+        return failures.isEmpty() ? e : failures.get(0);
+    }
+
+    private Retry retry(String baseCode, String quoteCode) {
+        return Retry.backoff(maxAttempts - 1, Duration.ofMillis(initialBackoff))
+                .maxBackoff(Duration.ofMillis(maxBackoff))
+                .jitter(0.5)
+                .filter(OandaResilienceConfig::isUpstreamFailure)
+                .doBeforeRetry(signal -> {
+                    log.warn("Retrying OANDA request for {}/{} after failed attempt {}: {}",
+                            baseCode, quoteCode, signal.totalRetries() + 1, signal.failure().getMessage());
+                    Counter.builder("oanda.request.retries")
+                            .description("OANDA requests retried after an upstream failure")
+                            .tag("name", oandaCircuitBreaker.getName())
+                            .register(meterRegistry)
+                            .increment();
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private Timer requestTimer(String baseCode, String quoteCode, String outcome) {
+        return Timer.builder("oanda.request.latency")
+                .description("Latency of OANDA exchange rate requests per currency pair")
+                .tag("pair", baseCode + "/" + quoteCode)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Successful single attempts per host, retries and hedges excluded; its p95 is the hedge delay
+    private Timer attemptTimer() {
+        return Timer.builder("oanda.attempt.latency")
+                .description("Latency of successful single OANDA calls")
+                .tag("name", oandaCircuitBreaker.getName())
+                .publishPercentiles(HEDGE_PERCENTILE)
+                .register(meterRegistry);
+    }
+
+    private Counter hedgeCounter() {
+        return Counter.builder("oanda.request.hedges")
+                .description("Hedged copies sent for OANDA requests slower than the p95")
+                .tag("name", oandaCircuitBreaker.getName())
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,212 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Streams an OANDA chart response, {@code {"meta": {...}, "data": {"yyyy-MM-dd": [{"close": "1.2345", ...}]}}},
+ * straight into a {@link RateBatch} with Jackson's non-blocking parser.
+ * <p>
+ * Buffers are parsed as they arrive and released right after, so the body is never held in full. Only the day key
+ * and the {@code close} of each day's first quote are read: no tree and no {@code QuoteData}. Day keys come from
+ * the shared factory's symbol table, so a day seen in an earlier response is not allocated again, and rates are
+ * parsed from the parser's own character buffer.
+ */
+@Slf4j
+final class OandaChartParser implements AutoCloseable {
+
+    // Day keys are canonicalized but not interned, so years of dates stay out of the JVM string pool
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(JsonFactory.Feature.INTERN_FIELD_NAMES)
+            .build();
+    private static final int NO_DAY = Integer.MIN_VALUE;
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final RateBatch.Builder batch;
+    private final long first;
+    private final long last;
+
+    private boolean started;
+    private int depth;
+    private boolean dataFieldNext;
+    private boolean inData;
+    private int day = NO_DAY;
+    private int quoteIndex;
+    private boolean closeNext;
+
+    private OandaChartParser(String baseCode, String quoteCode, String source, long first, long last) {
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        this.batch = RateBatch.builder(baseCode, quoteCode, source, 256);
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Parses a response body as it streams in. Each subscription parses from scratch, so a retried request starts
+     * with an empty batch.
+     */
+    static Mono<RateBatch> parse(Flux<DataBuffer> body, String baseCode, String quoteCode, String source) {
+        return Mono.using(() -> new OandaChartParser(baseCode, quoteCode, source, Long.MIN_VALUE, Long.MAX_VALUE),
+                parser -> body.handle((buffer, sink) -> {
+                            try {
+                                parser.feed(buffer);
+                            } catch (IOException e) {
+                                sink.error(e);
+                            } finally {
+                                DataBufferUtils.release(buffer);
+                            }
+                        })
+                        .then(Mono.fromCallable(parser::finish)),
+                OandaChartParser::close);
+    }
+
+    /**
+     * Parses a complete response already in memory, such as a recording mapped from disk, keeping the days from
+     * {@code first} to {@code last} (epoch days, inclusive).
+     */
+    static RateBatch parse(ByteBuffer content, String baseCode, String quoteCode, String source,
+                           long first, long last) throws IOException {
+        try (OandaChartParser parser = new OandaChartParser(baseCode, quoteCode, source, first, last)) {
+            parser.feed(content);
+            return parser.finish();
+        }
+    }
+
+    private void feed(DataBuffer buffer) throws IOException {
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                feed(iterator.next());
+            }
+        }
+    }
+
+    // The feeder reads from the buffer in place, so every token is consumed before the buffer is let go
+    private void feed(ByteBuffer buffer) throws IOException {
+        feeder.feedInput(buffer);
+        drain();
+    }
+
+    private RateBatch finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        if (!started || depth != 0) {
+            throw new IOException("OANDA response is empty or ends inside the JSON document");
+        }
+        return batch.build();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_OBJECT -> {
+                    started = true;
+                    if (depth == 1 && dataFieldNext) {
+                        inData = true;
+                    } else if (depth == 3 && inData) {
+                        quoteIndex++;
+                    }
+                    depth++;
+                }
+                case START_ARRAY -> depth++;
+                case END_OBJECT, END_ARRAY -> {
+                    depth--;
+                    if (depth == 1) {
+                        inData = false;
+                    }
+                }
+                case FIELD_NAME -> onFieldName();
+                default -> onValue(token);
+            }
+        }
+    }
+
+    private void onFieldName() throws IOException {
+        if (depth == 1) {
+            dataFieldNext = "data".equals(parser.currentName());
+        } else if (depth == 2 && inData) {
+            day = parseDay(parser.currentName());
+            quoteIndex = -1;
+        } else if (depth == 4 && inData) {
+            closeNext = quoteIndex == 0 && "close".equals(parser.currentName());
+        }
+    }
+
+    private void onValue(JsonToken token) throws IOException {
+        if (!closeNext) {
+            return;
+        }
+        closeNext = false;
+        if (day == NO_DAY || day < first || day > last
+                || (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_FLOAT
+                && token != JsonToken.VALUE_NUMBER_INT)) {
+            return;
+        }
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        long scaledRate = RateBatch.parseScaled(i -> chars[i], offset, offset + parser.getTextLength());
+        if (scaledRate >= 0) {
+            batch.add(day, scaledRate);
+        } else {
+            log.warn("Invalid rate format: {}", parser.getText());
+        }
+    }
+
+    private static int parseDay(String key) {
+        if (key.length() == 10 && key.charAt(4) == '-' && key.charAt(7) == '-') {
+            int year = digits(key, 0, 4);
+            int month = digits(key, 5, 2);
+            int dayOfMonth = digits(key, 8, 2);
+            if (year >= 0 && month >= 0 && dayOfMonth >= 0) {
+                try {
+                    return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+                } catch (DateTimeException e) {
+                    // Reported below
+                }
+            }
+        }
+        log.warn("Invalid date format: {}", key);
+        return NO_DAY;
+    }
+
+    private static int digits(String key, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            log.debug("Error closing OANDA response parser: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import com.cathaybank.currencyexchange.service.OandaApiService;
+import com.cathaybank.currencyexchange.service.RateProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Service
+@ConditionalOnProperty(name = "rate-provider.type", havingValue = "oanda", matchIfMissing = true)
+@RequiredArgsConstructor
+public class OandaRateProvider implements RateProvider {
+
+    private final OandaApiService oandaApiService;
+
+    @Override
+    public Mono<RateBatch> fetchRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate) {
+        return oandaApiService.fetchRates(baseCode, quoteCode, startDate, endDate);
+    }
+}
@@ -0,0 +1,267 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.cache.LatestRateSnapshot;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import com.cathaybank.currencyexchange.service.RateStreamService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Pushes the latest rate of each pair to stream subscribers once a sync or manual create has committed.
+ * <p>
+ * Subscribers are indexed by pair, so an update only touches the subscribers that asked for its pair plus those
+ * that asked for every pair, and each update is serialized once however many subscribers receive it. Nothing is
+ * queued per subscriber beyond one pending update per pair: a subscriber that has not asked for more, because its
+ * connection is still writing earlier events, has a newer rate of a pair replace the undelivered one. A slow
+ * consumer therefore costs at most one entry per pair and always catches up to the current rates.
+ * <p>
+ * A new stream first receives the current latest rate of each of its stored pairs from the
+ * {@link LatestRateSnapshot}, so a client that reconnects, and may have missed updates while it was away, starts
+ * from the current rates rather than waiting for the next sync.
+ * <p>
+ * Rates older than the pair's latest, such as a manually created historical rate, are not pushed. Idle streams get
+ * a comment line every {@code exchange-rate.stream.heartbeat-interval} ms, which keeps proxies from closing them
+ * and lets dead connections be noticed.
+ */
+@Service
+@Slf4j
+public class RateStreamServiceImpl implements RateStreamService {
+
+    private static final Pattern PAIR = Pattern.compile("[A-Z]{3}/[A-Z]{3}");
+    private static final ServerSentEvent<String> HEARTBEAT = ServerSentEvent.<String>builder()
+            .comment("heartbeat")
+            .build();
+
+    private final ObjectMapper objectMapper;
+    private final LatestRateSnapshot latestRateSnapshot;
+    private final Counter coalesced;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> everyPair = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscriber>> byPair = new ConcurrentHashMap<>();
+
+    public RateStreamServiceImpl(ObjectMapper objectMapper, LatestRateSnapshot latestRateSnapshot,
+                                 MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.latestRateSnapshot = latestRateSnapshot;
+        Gauge.builder("exchange.rate.stream.subscribers", subscribers, Set::size)
+                .description("Open exchange rate update streams")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("exchange.rate.stream.coalesced")
+                .description("Undelivered rate updates replaced by a newer rate of the same pair")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Flux<ServerSentEvent<String>> subscribe(List<String> pairs) {
+        Set<String> keys = parsePairs(pairs);
+        return Flux.create(sink -> {
+            Subscriber subscriber = new Subscriber(sink);
+            sink.onRequest(n -> subscriber.drain());
+            sink.onDispose(() -> remove(subscriber, keys));
+            add(subscriber, keys);
+            latestRateSnapshot.findAllStored().forEach(rate -> {
+                String key = LatestRateSnapshot.pairKey(rate.getBaseCurrencyCode(), rate.getQuoteCurrencyCode());
+                if (keys.isEmpty() || keys.contains(key)) {
+                    ServerSentEvent<String> update = update(key, rate);
+                    if (update != null) {
+                        // An update published since add() is at least as new, and is kept
+                        subscriber.offerIfAbsent(key, update);
+                    }
+                }
+            });
+            log.debug("Rate stream opened for {}", keys.isEmpty() ? "every pair" : keys);
+        });
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExchangeRatesUpdated(ExchangeRatesUpdatedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Map<String, ExchangeRateDTO> newest = new HashMap<>();
+        event.getExchangeRates().forEach(rate -> newest.merge(
+                LatestRateSnapshot.pairKey(rate.getBaseCurrencyCode(), rate.getQuoteCurrencyCode()), rate,
+                (current, candidate) -> candidate.getDate().isBefore(current.getDate()) ? current : candidate));
+        newest.forEach(this::publish);
+    }
+
+    @Scheduled(fixedRateString = "${exchange-rate.stream.heartbeat-interval:15000}",
+            initialDelayString = "${exchange-rate.stream.heartbeat-interval:15000}")
+    public void sendHeartbeats() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    private void publish(String key, ExchangeRateDTO rate) {
+        Set<Subscriber> pairSubscribers = byPair.getOrDefault(key, Set.of());
+        if ((pairSubscribers.isEmpty() && everyPair.isEmpty()) || !isLatest(rate)) {
+            return;
+        }
+        ServerSentEvent<String> update = update(key, rate);
+        if (update == null) {
+            return;
+        }
+        pairSubscribers.forEach(subscriber -> subscriber.offer(key, update));
+        everyPair.forEach(subscriber -> subscriber.offer(key, update));
+    }
+
+    private ServerSentEvent<String> update(String key, ExchangeRateDTO rate) {
+        try {
+            return ServerSentEvent.builder(objectMapper.writeValueAsString(rate))
+                    .event("rate")
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing rate update for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    // The snapshot has already merged this commit, so it holds the rate unless a later one was stored before
+    private boolean isLatest(ExchangeRateDTO rate) {
+        return latestRateSnapshot.find(rate.getBaseCurrencyCode(), rate.getQuoteCurrencyCode())
+                .map(latest -> !rate.getDate().isBefore(latest.getDate()))
+                .orElse(true);
+    }
+
+    private void add(Subscriber subscriber, Set<String> keys) {
+        subscribers.add(subscriber);
+        if (keys.isEmpty()) {
+            everyPair.add(subscriber);
+        } else {
+            // Added inside compute, so a concurrent remove cannot drop the set this subscriber is being added to
+            keys.forEach(key -> byPair.compute(key, (k, pairSubscribers) -> {
+                Set<Subscriber> updated = pairSubscribers != null ? pairSubscribers : ConcurrentHashMap.newKeySet();
+                updated.add(subscriber);
+                return updated;
+            }));
+        }
+    }
+
+    private void remove(Subscriber subscriber, Set<String> keys) {
+        subscribers.remove(subscriber);
+        everyPair.remove(subscriber);
+        keys.forEach(key -> byPair.computeIfPresent(key, (k, pairSubscribers) -> {
+            pairSubscribers.remove(subscriber);
+            return pairSubscribers.isEmpty() ? null : pairSubscribers;
+        }));
+        log.debug("Rate stream closed");
+    }
+
+    private static Set<String> parsePairs(List<String> pairs) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (pairs != null) {
+            for (String pair : pairs) {
+                String key = pair.trim().toUpperCase(Locale.ROOT);
+                if (!PAIR.matcher(key).matches()) {
+                    throw new IllegalArgumentException("Invalid currency pair: " + pair + " (expected e.g. USD/EUR)");
+                }
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private final class Subscriber {
+
+        private final FluxSink<ServerSentEvent<String>> sink;
+        private final AtomicInteger wip = new AtomicInteger();
+        // The undelivered update of each pair, in the order the pairs changed; guarded by itself
+        private final Map<String, ServerSentEvent<String>> pending = new LinkedHashMap<>();
+        private boolean heartbeatDue;
+
+        private Subscriber(FluxSink<ServerSentEvent<String>> sink) {
+            this.sink = sink;
+        }
+
+        void offer(String key, ServerSentEvent<String> update) {
+            synchronized (pending) {
+                if (pending.put(key, update) != null) {
+                    coalesced.increment();
+                }
+            }
+            drain();
+        }
+
+        void offerIfAbsent(String key, ServerSentEvent<String> update) {
+            synchronized (pending) {
+                pending.putIfAbsent(key, update);
+            }
+            drain();
+        }
+
+        void heartbeat() {
+            synchronized (pending) {
+                heartbeatDue = true;
+            }
+            drain();
+        }
+
+        /**
+         * Emits pending updates while the subscriber has demand. Whichever thread gets here first, the publisher or
+         * the subscriber asking for more, emits on behalf of the others, so events are never emitted concurrently
+         * and never beyond demand.
+         */
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    ServerSentEvent<String> next = poll();
+                    if (next == null) {
+                        break;
+                    }
+                    sink.next(next);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private ServerSentEvent<String> poll() {
+            synchronized (pending) {
+                Iterator<ServerSentEvent<String>> iterator = pending.values().iterator();
+                if (iterator.hasNext()) {
+                    ServerSentEvent<String> next = iterator.next();
+                    iterator.remove();
+                    // Any event keeps the connection alive
+                    heartbeatDue = false;
+                    return next;
+                }
+                if (heartbeatDue) {
+                    heartbeatDue = false;
+                    return HEARTBEAT;
+                }
+                return null;
+            }
+        }
+    }
+}
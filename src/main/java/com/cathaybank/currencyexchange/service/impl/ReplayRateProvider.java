@@ -0,0 +1,192 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import com.cathaybank.currencyexchange.service.RateProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replays rates from files in {@code rate-provider.replay.directory}, for load tests and air-gapped environments.
+ * <p>
+ * Each pair is read from {@code BASE_QUOTE.csv} or, failing that, from a recorded OANDA response in
+ * {@code BASE_QUOTE.json}, which goes through {@link OandaChartParser}. A CSV file holds one
+ * {@code yyyy-MM-dd,rate} line per day, sorted by date, optionally after a header line; further columns are
+ * ignored. Files are memory-mapped once and never copied onto the heap:
+ * a request binary-searches the mapped CSV for its first day and parses rows straight from the mapping, so it
+ * touches only the pages of its own date range. Files must not change while the application runs.
+ */
+@Service
+@ConditionalOnProperty(name = "rate-provider.type", havingValue = "replay")
+@Slf4j
+public class ReplayRateProvider implements RateProvider {
+
+    private final Path directory;
+    private final String source;
+    private final Map<Path, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+
+    public ReplayRateProvider(@Value("${rate-provider.replay.directory}") String directory,
+                              @Value("${rate-provider.replay.source:REPLAY}") String source) {
+        this.directory = Paths.get(directory);
+        this.source = source;
+        if (!Files.isDirectory(this.directory)) {
+            throw new IllegalStateException("rate-provider.replay.directory is not a directory: " + directory);
+        }
+        log.info("Replaying exchange rates from {}", this.directory.toAbsolutePath());
+    }
+
+    @Override
+    public Mono<RateBatch> fetchRates(String baseCode, String quoteCode, LocalDate startDate, LocalDate endDate) {
+        // Page faults on a mapped file block, so reads stay off the caller's thread
+        return Mono.fromCallable(() -> read(baseCode, quoteCode, startDate.toEpochDay(), endDate.toEpochDay()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    RateBatch read(String baseCode, String quoteCode, long first, long last) throws IOException {
+        String name = baseCode + "_" + quoteCode;
+        Path csv = directory.resolve(name + ".csv");
+        if (Files.isRegularFile(csv)) {
+            return readCsv(baseCode, quoteCode, csv, map(csv), first, last);
+        }
+        Path json = directory.resolve(name + ".json");
+        if (Files.isRegularFile(json)) {
+            return OandaChartParser.parse(map(json).duplicate(), baseCode, quoteCode, source, first, last);
+        }
+        throw new IllegalStateException("No replay file for " + baseCode + "/" + quoteCode + " in " + directory);
+    }
+
+    private MappedByteBuffer map(Path file) {
+        return mappings.computeIfAbsent(file, path -> {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Replay file larger than 2 GB: " + path);
+                }
+                // The mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private RateBatch readCsv(String baseCode, String quoteCode, Path file, MappedByteBuffer buffer,
+                              long first, long last) {
+        int limit = buffer.limit();
+        RateBatch.Builder batch = RateBatch.builder(baseCode, quoteCode, source,
+                (int) Math.min(Math.max(last - first + 1, 1), 4096));
+        int line = firstLineFrom(buffer, first, file);
+        while (line < limit) {
+            int end = lineEnd(buffer, line);
+            if (isDigit(buffer.get(line))) {
+                long epochDay = parseEpochDay(buffer, line, end, file);
+                if (epochDay > last) {
+                    break;
+                }
+                if (epochDay >= first) {
+                    batch.add((int) epochDay, parseRate(buffer, line + 11, end, file));
+                }
+            }
+            line = end + 1;
+        }
+        return batch.build();
+    }
+
+    /**
+     * Offset of the first data line on or after {@code first}, found by bisecting byte offsets: every probe
+     * lands mid-line and compares the date of the next data line after it. Header and blank lines are skipped.
+     */
+    private static int firstLineFrom(MappedByteBuffer buffer, long first, Path file) {
+        int low = 0;
+        int high = buffer.limit();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int line = nextDataLine(buffer, nextLineStart(buffer, middle));
+            if (line >= buffer.limit() || parseEpochDay(buffer, line, lineEnd(buffer, line), file) >= first) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return nextDataLine(buffer, nextLineStart(buffer, low));
+    }
+
+    private static int nextDataLine(MappedByteBuffer buffer, int line) {
+        while (line < buffer.limit() && !isDigit(buffer.get(line))) {
+            line = lineEnd(buffer, line) + 1;
+        }
+        return line;
+    }
+
+    private static int nextLineStart(MappedByteBuffer buffer, int offset) {
+        return offset == 0 ? 0 : lineEnd(buffer, offset - 1) + 1;
+    }
+
+    private static int lineEnd(MappedByteBuffer buffer, int line) {
+        int position = line;
+        while (position < buffer.limit() && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private static long parseEpochDay(MappedByteBuffer buffer, int line, int end, Path file) {
+        if (end - line < 12 || buffer.get(line + 4) != '-' || buffer.get(line + 7) != '-'
+                || buffer.get(line + 10) != ',') {
+            throw malformed(file, line);
+        }
+        int year = digits(buffer, line, 4, file);
+        int month = digits(buffer, line + 5, 2, file);
+        int day = digits(buffer, line + 8, 2, file);
+        return LocalDate.of(year, month, day).toEpochDay();
+    }
+
+    /**
+     * Parses the rate column, which runs from {@code start} to the next comma or the end of the line.
+     */
+    private static long parseRate(MappedByteBuffer buffer, int start, int end, Path file) {
+        int fieldEnd = start;
+        while (fieldEnd < end && buffer.get(fieldEnd) != ',' && buffer.get(fieldEnd) != '\r') {
+            fieldEnd++;
+        }
+        long scaledRate = RateBatch.parseScaled(buffer::get, start, fieldEnd);
+        if (scaledRate < 0) {
+            throw malformed(file, start);
+        }
+        return scaledRate;
+    }
+
+    private static int digits(MappedByteBuffer buffer, int start, int count, Path file) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            byte b = buffer.get(i);
+            if (!isDigit(b)) {
+                throw malformed(file, start);
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static IllegalStateException malformed(Path file, int offset) {
+        return new IllegalStateException("Malformed replay line at byte " + offset + " of " + file);
+    }
+}
@@ -0,0 +1,115 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.dto.CurrencyPair;
+import com.cathaybank.currencyexchange.dto.SyncJobDTO;
+import com.cathaybank.currencyexchange.service.SyncProgressListener;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Mutable state of one sync job. Written by the job thread and the fetching threads, read by status requests,
+ * so every access is synchronized on the job.
+ */
+class SyncJob implements SyncProgressListener {
+
+    private final String id = UUID.randomUUID().toString();
+    private final SyncJobDTO.Trigger trigger;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final Map<String, SyncJobDTO.PairProgress> pairs = new LinkedHashMap<>();
+
+    private SyncJobDTO.Status status = SyncJobDTO.Status.QUEUED;
+    private int triggerCount = 1;
+    private int savedRates;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    SyncJob(SyncJobDTO.Trigger trigger) {
+        this.trigger = trigger;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    synchronized boolean isActive() {
+        return status == SyncJobDTO.Status.QUEUED || status == SyncJobDTO.Status.RUNNING;
+    }
+
+    synchronized void collapse() {
+        triggerCount++;
+    }
+
+    synchronized void start() {
+        status = SyncJobDTO.Status.RUNNING;
+        startedAt = LocalDateTime.now();
+    }
+
+    synchronized void succeed() {
+        status = SyncJobDTO.Status.SUCCEEDED;
+        finishedAt = LocalDateTime.now();
+    }
+
+    synchronized void fail(String message) {
+        status = SyncJobDTO.Status.FAILED;
+        error = message;
+        finishedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public synchronized void onPlanned(List<CurrencyPair> pending, List<CurrencyPair> upToDate) {
+        pending.forEach(pair -> pairs.put(pair.key(), progress(pair, SyncJobDTO.PairStatus.PENDING, 0)));
+        upToDate.forEach(pair -> pairs.put(pair.key(), progress(pair, SyncJobDTO.PairStatus.UP_TO_DATE, 0)));
+    }
+
+    @Override
+    public synchronized void onPairFetched(CurrencyPair pair, int windows, boolean failed) {
+        pairs.put(pair.key(), progress(pair,
+                failed ? SyncJobDTO.PairStatus.FAILED : SyncJobDTO.PairStatus.SYNCED, windows));
+    }
+
+    @Override
+    public synchronized void onRatesSaved(int count) {
+        savedRates += count;
+    }
+
+    synchronized SyncJobDTO toDTO() {
+        int completed = 0;
+        int failed = 0;
+        for (SyncJobDTO.PairProgress progress : pairs.values()) {
+            if (progress.getStatus() != SyncJobDTO.PairStatus.PENDING) {
+                completed++;
+            }
+            if (progress.getStatus() == SyncJobDTO.PairStatus.FAILED) {
+                failed++;
+            }
+        }
+        return SyncJobDTO.builder()
+                .id(id)
+                .status(status)
+                .trigger(trigger)
+                .triggerCount(triggerCount)
+                .totalPairs(pairs.size())
+                .completedPairs(completed)
+                .failedPairs(failed)
+                .savedRates(savedRates)
+                .error(error)
+                .createdAt(createdAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .pairs(List.copyOf(pairs.values()))
+                .build();
+    }
+
+    private static SyncJobDTO.PairProgress progress(CurrencyPair pair, SyncJobDTO.PairStatus status, int windows) {
+        return SyncJobDTO.PairProgress.builder()
+                .pair(pair.key())
+                .status(status)
+                .windows(windows)
+                .build();
+    }
+}
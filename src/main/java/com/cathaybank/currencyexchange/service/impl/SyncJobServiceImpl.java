@@ -0,0 +1,98 @@
+package com.cathaybank.currencyexchange.service.impl;
+
+import com.cathaybank.currencyexchange.dto.SyncJobDTO;
+import com.cathaybank.currencyexchange.exception.ApiException;
+import com.cathaybank.currencyexchange.exception.ResourceNotFoundException;
+import com.cathaybank.currencyexchange.service.ExchangeRateService;
+import com.cathaybank.currencyexchange.service.SyncJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs exchange rate syncs as background jobs, off the request and scheduler threads.
+ * <p>
+ * At most one job is queued or running at a time: a trigger that arrives meanwhile is folded into that job and
+ * gets its id. Jobs run on a single dedicated thread, so a slow upstream occupies that thread rather than Tomcat's.
+ * The last {@code sync.job.history-size} jobs stay available for status requests.
+ */
+@Service
+@Slf4j
+public class SyncJobServiceImpl implements SyncJobService, DisposableBean {
+
+    private final ExchangeRateService exchangeRateService;
+    private final ExecutorService executor;
+    private final Map<String, SyncJob> jobs;
+
+    private SyncJob activeJob;
+
+    public SyncJobServiceImpl(ExchangeRateService exchangeRateService,
+                              @Value("${sync.job.history-size:50}") int historySize) {
+        this.exchangeRateService = exchangeRateService;
+        // One worker and one queue slot are all a single active job needs; anything beyond that is a bug, not load
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                new CustomizableThreadFactory("sync-job-"));
+        this.jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SyncJob> eldest) {
+                return size() > historySize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized SyncJobDTO submit(SyncJobDTO.Trigger trigger) {
+        if (activeJob != null && activeJob.isActive()) {
+            activeJob.collapse();
+            log.info("Sync triggered ({}) while job {} is active; collapsed into it", trigger, activeJob.getId());
+            return activeJob.toDTO();
+        }
+
+        SyncJob job = new SyncJob(trigger);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            throw new ApiException("SYNC_REJECTED", "Exchange rate synchronization could not be queued");
+        }
+        jobs.put(job.getId(), job);
+        activeJob = job;
+        log.info("Sync job {} queued ({})", job.getId(), trigger);
+        return job.toDTO();
+    }
+
+    @Override
+    public synchronized SyncJobDTO getJob(String id) {
+        SyncJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Sync job not found: " + id);
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void run(SyncJob job) {
+        job.start();
+        try {
+            exchangeRateService.syncExchangeRates(job);
+            job.succeed();
+            log.info("Sync job {} succeeded", job.getId());
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            log.error("Sync job {} failed: {}", job.getId(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.cathaybank.currencyexchange.util;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes one key-value access event per request to the {@code com.cathaybank.currencyexchange.access} logger,
+ * which logback-spring.xml routes through an asynchronous appender.
+ * <p>
+ * Nothing is built unless that logger is enabled at INFO and the request is sampled; failed requests (status 500
+ * and above, or an exception) are always logged. With body capture off the filter neither wraps the request nor
+ * the response, so an unsampled request costs a level check and a random draw. With body capture on, at most
+ * {@code access-log.max-body-length} bytes of each body are kept, and responses are still streamed through.
+ * <p>
+ * A plain {@link Filter} rather than {@code OncePerRequestFilter}, whose per-request marker attribute allocates
+ * even when nothing is logged; only the initial {@code REQUEST} dispatch is logged.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j(topic = "com.cathaybank.currencyexchange.access")
+public class AccessLogFilter implements Filter {
+
+    private static final String ACCESS_LOG_FORMAT =
+            "requestId={} method={} uri={} query={} status={} durationMs={}";
+    private static final String ACCESS_LOG_WITH_BODY_FORMAT = ACCESS_LOG_FORMAT + " requestBody={} responseBody={}";
+
+    private final AtomicLong requestSequence = new AtomicLong();
+
+    @Value("${access-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${access-log.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${access-log.include-body:false}")
+    private boolean includeBody;
+
+    @Value("${access-log.max-body-length:2048}")
+    private int maxBodyLength;
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws ServletException, IOException {
+        if (!enabled || !log.isInfoEnabled() || servletRequest.getDispatcherType() != DispatcherType.REQUEST
+                || !(servletRequest instanceof HttpServletRequest request)
+                || !(servletResponse instanceof HttpServletResponse response)) {
+            chain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        HttpServletRequest loggedRequest = request;
+        HttpServletResponse loggedResponse = response;
+        if (includeBody && sampled) {
+            // One byte past the limit so a truncated body can be told apart from one that fits exactly
+            loggedRequest = new ContentCachingRequestWrapper(request, maxBodyLength + 1);
+            loggedResponse = new BodyCaptureResponseWrapper(response, maxBodyLength);
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(loggedRequest, loggedResponse);
+            failed = false;
+        } finally {
+            if (!failed && loggedRequest.isAsyncStarted()) {
+                // Streaming endpoints finish on another thread; log when the async request completes
+                loggedRequest.getAsyncContext().addListener(
+                        new CompletionListener(loggedRequest, loggedResponse, start, sampled));
+            } else {
+                logIfSelected(loggedRequest, loggedResponse, start, sampled, failed);
+            }
+        }
+    }
+
+    private void logIfSelected(HttpServletRequest request, HttpServletResponse response,
+                               long start, boolean sampled, boolean failed) {
+        int status = response.getStatus();
+        if (!sampled && !failed && status < HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+            return;
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        long requestId = requestSequence.incrementAndGet();
+        if (request instanceof ContentCachingRequestWrapper cachingRequest
+                && response instanceof BodyCaptureResponseWrapper capturingResponse) {
+            log.info(ACCESS_LOG_WITH_BODY_FORMAT, requestId, request.getMethod(), request.getRequestURI(),
+                    request.getQueryString(), failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : status,
+                    durationMs, body(cachingRequest.getContentAsByteArray()), body(capturingResponse.getCaptured()));
+        } else {
+            log.info(ACCESS_LOG_FORMAT, requestId, request.getMethod(), request.getRequestURI(),
+                    request.getQueryString(), failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : status,
+                    durationMs);
+        }
+    }
+
+    private String body(byte[] content) {
+        int length = Math.min(content.length, maxBodyLength);
+        String body = new String(content, 0, length, StandardCharsets.UTF_8);
+        return content.length > maxBodyLength ? body + "...(truncated)" : body;
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+        private final boolean sampled;
+        private boolean logged;
+
+        private CompletionListener(HttpServletRequest request, HttpServletResponse response,
+                                   long start, boolean sampled) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+            this.sampled = sampled;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            logOnce(false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            logOnce(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            logOnce(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the next async cycle of the same request
+            event.getAsyncContext().addListener(this);
+        }
+
+        // A timed-out or failed request is completed afterwards as well
+        private synchronized void logOnce(boolean failed) {
+            if (!logged) {
+                logged = true;
+                logIfSelected(request, response, start, sampled, failed);
+            }
+        }
+    }
+}
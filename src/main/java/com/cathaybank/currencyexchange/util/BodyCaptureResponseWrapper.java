@@ -0,0 +1,109 @@
+package com.cathaybank.currencyexchange.util;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Passes the response body straight through to the client and keeps a copy of its first {@code limit} bytes.
+ * Unlike {@link org.springframework.web.util.ContentCachingResponseWrapper}, the body is never buffered in full,
+ * so streamed responses keep streaming.
+ */
+class BodyCaptureResponseWrapper extends HttpServletResponseWrapper {
+
+    private final byte[] captured;
+    private int capturedLength;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    BodyCaptureResponseWrapper(HttpServletResponse response, int limit) {
+        super(response);
+        // One byte past the limit tells the logger the body was truncated
+        this.captured = new byte[limit + 1];
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CapturingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+                    Charset.forName(getCharacterEncoding())), true);
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    byte[] getCaptured() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return Arrays.copyOf(captured, capturedLength);
+    }
+
+    private void capture(byte[] bytes, int offset, int length) {
+        int copied = Math.min(length, captured.length - capturedLength);
+        if (copied > 0) {
+            System.arraycopy(bytes, offset, captured, capturedLength, copied);
+            capturedLength += copied;
+        }
+    }
+
+    private final class CapturingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        private CapturingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            if (capturedLength < captured.length) {
+                captured[capturedLength++] = (byte) b;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            capture(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.cathaybank.currencyexchange.util;
+
+import com.cathaybank.currencyexchange.cache.DataVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Answers conditional GETs on the read endpoints from {@link DataVersion} alone, before the handler runs.
+ * <p>
+ * Every GET or HEAD gets the current version as a weak {@code ETag}, the time of its last change as
+ * {@code Last-Modified}, and a {@code Cache-Control} that lets shared caches such as the CDN serve the response for
+ * {@code http.cache.shared-max-age} and then revalidate, while clients revalidate after {@code http.cache.max-age}.
+ * A request whose {@code If-None-Match} (or, without it, {@code If-Modified-Since}) still matches is answered with
+ * 304 and never reaches the controller, so it costs no query and no serialization.
+ * <p>
+ * The body's encoding follows {@code Accept}, so every response varies by it, and a response in any other encoding
+ * than JSON gets the version's ETag for that media type: a shared cache never hands one encoding to a client that
+ * asked for another, and a client revalidating one encoding never gets a 304 for another.
+ * <p>
+ * The version is read before the handler, so a change committed while a response is being built at worst makes
+ * the client fetch the same data once more; it never labels old data with a new version.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    // What the message converters write ApiResponse bodies as, in the order they are tried
+    private static final List<MediaType> WRITABLE = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR);
+
+    private final DataVersion dataVersion;
+    private final String cacheControl;
+
+    public ConditionalGetInterceptor(DataVersion dataVersion,
+                                     @Value("${http.cache.max-age:0s}") Duration maxAge,
+                                     @Value("${http.cache.shared-max-age:30s}") Duration sharedMaxAge) {
+        this.dataVersion = dataVersion;
+        this.cacheControl = CacheControl.maxAge(maxAge)
+                .sMaxAge(sharedMaxAge)
+                .cachePublic()
+                .mustRevalidate()
+                .getHeaderValue();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        DataVersion.Stamp stamp = dataVersion.current();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        MediaType representation = representation(request);
+        String eTag = representation == null || MediaType.APPLICATION_JSON.equalsTypeAndSubtype(representation)
+                ? stamp.getETag()
+                : stamp.getETag(representation.getSubtype());
+        // Sets ETag and Last-Modified, and the 304 status when the client already holds this version
+        return !new ServletWebRequest(request, response).checkNotModified(eTag, stamp.getLastModifiedMillis());
+    }
+
+    /**
+     * The media type the response will be written in: the first of the matched handler's {@code produces} types, or
+     * of the types every handler can write, that the most preferred {@code Accept} entry allows.
+     */
+    private static MediaType representation(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        Set<MediaType> producible =
+                (Set<MediaType>) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        Collection<MediaType> candidates = producible != null && !producible.isEmpty() ? producible : WRITABLE;
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(request.getHeader(HttpHeaders.ACCEPT)));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        if (accepted.isEmpty()) {
+            return candidates.iterator().next();
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType accept : accepted) {
+            for (MediaType candidate : candidates) {
+                if (accept.includes(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+}
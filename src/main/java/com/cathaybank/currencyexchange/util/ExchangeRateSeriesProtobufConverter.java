@@ -0,0 +1,114 @@
+package com.cathaybank.currencyexchange.util;
+
+import com.cathaybank.currencyexchange.dto.ExchangeRateSeriesDTO;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Writes an {@link ExchangeRateSeriesDTO} as the {@code ExchangeRateSeries} message of
+ * {@code src/main/proto/exchange_rate_series.proto}.
+ * <p>
+ * The message is encoded field by field rather than through generated classes, so the build needs no protoc.
+ * Dates and rates are packed varints: a date is its local seconds since the epoch, and a rate is an integer number
+ * of units at the largest scale on the page, which keeps every rate exact.
+ */
+@Component
+public class ExchangeRateSeriesProtobufConverter extends AbstractHttpMessageConverter<ExchangeRateSeriesDTO> {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.valueOf(PROTOBUF_VALUE);
+
+    public ExchangeRateSeriesProtobufConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ExchangeRateSeriesDTO.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ExchangeRateSeriesDTO readInternal(Class<? extends ExchangeRateSeriesDTO> clazz,
+                                                 HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Exchange rate series are not accepted as input", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ExchangeRateSeriesDTO series, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        writeString(out, 1, series.getBaseCurrencyCode());
+        writeString(out, 2, series.getBaseCurrencyName());
+        writeString(out, 3, series.getQuoteCurrencyCode());
+        writeString(out, 4, series.getQuoteCurrencyName());
+
+        List<LocalDateTime> dates = series.getDates() != null ? series.getDates() : List.of();
+        long[] seconds = new long[dates.size()];
+        int datesSize = 0;
+        for (int i = 0; i < seconds.length; i++) {
+            seconds[i] = dates.get(i).toEpochSecond(ZoneOffset.UTC);
+            datesSize += CodedOutputStream.computeInt64SizeNoTag(seconds[i]);
+        }
+        if (seconds.length > 0) {
+            out.writeTag(5, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(datesSize);
+            for (long second : seconds) {
+                out.writeInt64NoTag(second);
+            }
+        }
+
+        List<BigDecimal> rates = series.getRates() != null ? series.getRates() : List.of();
+        int scale = 0;
+        for (BigDecimal rate : rates) {
+            scale = Math.max(scale, rate.scale());
+        }
+        long[] units = new long[rates.size()];
+        int ratesSize = 0;
+        for (int i = 0; i < units.length; i++) {
+            units[i] = rates.get(i).movePointRight(scale).longValueExact();
+            ratesSize += CodedOutputStream.computeSInt64SizeNoTag(units[i]);
+        }
+        if (units.length > 0) {
+            out.writeTag(6, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(ratesSize);
+            for (long unit : units) {
+                out.writeSInt64NoTag(unit);
+            }
+        }
+        if (scale != 0) {
+            out.writeUInt32(7, scale);
+        }
+
+        writeString(out, 8, series.getSource());
+        if (series.getSources() != null) {
+            for (String source : series.getSources()) {
+                // A repeated string keeps every element, so a missing source is sent as an empty one
+                out.writeString(9, source != null ? source : "");
+            }
+        }
+        out.flush();
+    }
+
+    // proto3 leaves out fields with the default value
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            out.writeString(field, value);
+        }
+    }
+}
@@ -1,51 +1,41 @@
-# Application Configuration
-spring.application.name=currency-exchange-service
-server.port=8080
-server.servlet.context-path=/api
-
-# H2 Database Configuration
-spring.datasource.url=jdbc:h2:mem:currencydb
-spring.datasource.driverClassName=org.h2.Driver
-spring.datasource.username=sa
-spring.datasource.password=password
-spring.h2.console.enabled=true
-spring.h2.console.path=/h2-console
-
-# JPA Configuration
-spring.jpa.database-platform=org.hibernate.dialect.H2Dialect
-spring.jpa.hibernate.ddl-auto=none
-spring.jpa.show-sql=true
-spring.jpa.properties.hibernate.format_sql=true
-
-# Initialize database using schema.sql and data.sql
-spring.sql.init.mode=always
-spring.sql.init.schema-locations=classpath:schema.sql
-spring.sql.init.data-locations=classpath:data.sql
-
-# Logging Configuration
-logging.level.root=INFO
-logging.level.com.cathaybank=DEBUG
-logging.level.org.springframework.web=INFO
-logging.level.org.hibernate.SQL=DEBUG
-logging.level.org.hibernate.type.descriptor.sql.BasicBinder=TRACE
-
-# Actuator Configuration
-management.endpoints.web.exposure.include=health,info,metrics
-management.endpoint.health.show-details=always
-
-# API Configuration
-api.oanda.base-url=https://fxds-public-exchange-rates-api.oanda.com/cc-api
-api.oanda.request-timeout=5000
-
-# Scheduler Configuration
-scheduler.exchange-rate.cron=0 0 * * * ?  # Hourly sync
-scheduler.exchange-rate.enabled=true
-
-# Internationalization
-spring.messages.basename=messages
-spring.messages.encoding=UTF-8
-spring.messages.fallback-to-system-locale=false
-
-# Crypto Configuration
-crypto.aes.key=YourSecretKey123
-crypto.aes.iv=YourInitVector1
\ No newline at end of file
+-- Currency table
+CREATE TABLE IF NOT EXISTS currency (
+    id         VARCHAR(36)  NOT NULL PRIMARY KEY,
+    code       VARCHAR(10)  NOT NULL UNIQUE,
+    name       VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(100) DEFAULT 'SYSTEM',
+    updated_by VARCHAR(100) DEFAULT 'SYSTEM'
+);
+
+-- Exchange rate table
+CREATE TABLE IF NOT EXISTS exchange_rate (
+    id                VARCHAR(36)    NOT NULL PRIMARY KEY,
+    base_currency_id  VARCHAR(36)    NOT NULL,
+    quote_currency_id VARCHAR(36)    NOT NULL,
+    rate              DECIMAL(19, 6) NOT NULL,
+    date              TIMESTAMP      NOT NULL,
+    source            VARCHAR(50),
+    created_at        TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at        TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by        VARCHAR(100)   DEFAULT 'SYSTEM',
+    updated_by        VARCHAR(100)   DEFAULT 'SYSTEM',
+    CONSTRAINT fk_exchange_rate_base_currency FOREIGN KEY (base_currency_id) REFERENCES currency (id),
+    CONSTRAINT fk_exchange_rate_quote_currency FOREIGN KEY (quote_currency_id) REFERENCES currency (id)
+);
+
+-- Every lookup filters on the pair and the date, and no pair may have two rates for the same date
+CREATE UNIQUE INDEX IF NOT EXISTS uk_exchange_rate_pair_date ON exchange_rate (base_currency_id, quote_currency_id, date);
+
+-- Last date each synced pair is complete through, so a sync only asks the upstream for what is missing
+CREATE TABLE IF NOT EXISTS sync_watermark (
+    id                VARCHAR(36) NOT NULL PRIMARY KEY,
+    base_currency_id  VARCHAR(36) NOT NULL,
+    quote_currency_id VARCHAR(36) NOT NULL,
+    synced_through    DATE        NOT NULL,
+    updated_at        TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_sync_watermark_pair UNIQUE (base_currency_id, quote_currency_id),
+    CONSTRAINT fk_sync_watermark_base_currency FOREIGN KEY (base_currency_id) REFERENCES currency (id) ON DELETE CASCADE,
+    CONSTRAINT fk_sync_watermark_quote_currency FOREIGN KEY (quote_currency_id) REFERENCES currency (id) ON DELETE CASCADE
+);
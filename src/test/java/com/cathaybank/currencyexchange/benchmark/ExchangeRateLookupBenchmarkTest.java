@@ -0,0 +1,132 @@
+package com.cathaybank.currencyexchange.benchmark;
+
+import com.cathaybank.currencyexchange.CurrencyExchangeApplication;
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.repository.CurrencyRepository;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures latest and range lookups while the exchange_rate table grows from 10k to 10M rows.
+ * <p>
+ * Disabled by default; run with {@code mvn test -Dtest=ExchangeRateLookupBenchmarkTest -Dbenchmark=true}.
+ * The sizes can be overridden with {@code -Dbenchmark.sizes=10000,100000}. Rows are spread over all 90 pairs
+ * of the seeded currencies, one rate per pair per day, in a file-based H2 database under target/benchmark.
+ */
+@SpringBootTest(classes = CurrencyExchangeApplication.class, properties = {
+        "scheduler.exchange-rate.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO",
+        "logging.level.com.cathaybank=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+public class ExchangeRateLookupBenchmarkTest {
+
+    private static final String DATABASE_DIR = "target/benchmark";
+    private static final int PAIRS = 90;
+    private static final int INSERT_CHUNK = 500_000;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1_000;
+    private static final LocalDateTime LATEST_DATE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    // Maps row number X to one of the 90 ordered pairs of the ten seeded currencies and to day X / 90
+    private static final String GENERATE_ROWS_SQL =
+            "INSERT INTO exchange_rate (id, base_currency_id, quote_currency_id, rate, date, source) " +
+            "SELECT CAST(RANDOM_UUID() AS VARCHAR(36)), " +
+            "'550e8400-e29b-41d4-a716-44665544000' || (MOD(X, 90) / 9), " +
+            "'550e8400-e29b-41d4-a716-44665544000' || MOD(MOD(X, 90) / 9 + 1 + MOD(MOD(X, 90), 9), 10), " +
+            "1 + MOD(X, 1000) / 10000.0, " +
+            "DATEADD('DAY', -(X / 90), TIMESTAMP '2024-01-01 12:00:00'), " +
+            "'BENCHMARK' " +
+            "FROM SYSTEM_RANGE(?, ?)";
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void benchmarkDatabase(DynamicPropertyRegistry registry) {
+        FileSystemUtils.deleteRecursively(new File(DATABASE_DIR));
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:./" + DATABASE_DIR + "/lookupdb");
+    }
+
+    @Test
+    void lookups_StayFlatAsTableGrows() {
+        List<Long> sizes = Arrays.stream(System.getProperty("benchmark.sizes", "10000,100000,1000000,10000000")
+                        .split(","))
+                .map(String::trim)
+                .map(Long::parseLong)
+                .sorted()
+                .toList();
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM exchange_rate " +
+                "WHERE base_currency_id = 'a' AND quote_currency_id = 'b' AND date BETWEEN ? AND ?",
+                String.class, LATEST_DATE.minusDays(90), LATEST_DATE);
+        assertTrue(plan.toUpperCase().contains("UK_EXCHANGE_RATE_PAIR_DATE"), plan);
+
+        Currency usd = currencyRepository.findByCode("USD").orElseThrow();
+        Currency eur = currencyRepository.findByCode("EUR").orElseThrow();
+        StringBuilder report = new StringBuilder("\n     rows | latest (us) | 90-day range (us)\n");
+        long rows = 0;
+        for (long size : sizes) {
+            rows = growTo(rows, size);
+
+            double latestMicros = measure(() ->
+                    exchangeRateRepository.findLatestByBaseCurrencyCodeAndQuoteCurrencyCode("USD", "EUR")
+                            .orElseThrow());
+            double rangeMicros = measure(() -> exchangeRateRepository.findPage(
+                    usd, eur, LATEST_DATE.minusDays(89), null, LATEST_DATE, 90));
+
+            assertEquals(LATEST_DATE, exchangeRateRepository
+                    .findLatestByBaseCurrencyCodeAndQuoteCurrencyCode("USD", "EUR").orElseThrow().getDate());
+            assertEquals(Math.min(90, size / PAIRS), exchangeRateRepository
+                    .findPage(usd, eur, LATEST_DATE.minusDays(89), null, LATEST_DATE, 90).size());
+
+            report.append(String.format("%9d | %11.1f | %17.1f%n", size, latestMicros, rangeMicros));
+        }
+        log.info("Exchange rate lookup benchmark:{}", report);
+    }
+
+    private long growTo(long currentRows, long targetRows) {
+        for (long from = currentRows; from < targetRows; from += INSERT_CHUNK) {
+            long to = Math.min(from + INSERT_CHUNK, targetRows) - 1;
+            jdbcTemplate.update(GENERATE_ROWS_SQL, from, to);
+        }
+        jdbcTemplate.execute("ANALYZE");
+        return targetRows;
+    }
+
+    private double measure(Supplier<?> lookup) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            lookup.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            lookup.get();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+    }
+}
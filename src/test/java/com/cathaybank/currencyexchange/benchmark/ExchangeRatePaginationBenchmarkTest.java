@@ -0,0 +1,160 @@
+package com.cathaybank.currencyexchange.benchmark;
+
+import com.cathaybank.currencyexchange.CurrencyExchangeApplication;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.repository.CurrencyRepository;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares keyset pages with OFFSET pages at increasing depth into one pair's history in a 10M-row table.
+ * <p>
+ * Disabled by default; run with {@code mvn test -Dtest=ExchangeRatePaginationBenchmarkTest -Dbenchmark=true}.
+ * The table size can be overridden with {@code -Dbenchmark.rows=1000000}. Rows are spread over all 90 pairs of
+ * the seeded currencies, one rate per pair per day, so USD/EUR holds a ninetieth of them.
+ */
+@SpringBootTest(classes = CurrencyExchangeApplication.class, properties = {
+        "scheduler.exchange-rate.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO",
+        "logging.level.com.cathaybank=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+public class ExchangeRatePaginationBenchmarkTest {
+
+    private static final String DATABASE_DIR = "target/benchmark";
+    private static final int PAIRS = 90;
+    private static final int PAGE_SIZE = 100;
+    private static final int INSERT_CHUNK = 100_000;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 500;
+    private static final LocalDateTime LATEST_DATE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    // Same layout as ExchangeRateLookupBenchmarkTest: row X is pair MOD(X, 90) on day X / 90 before LATEST_DATE
+    private static final String GENERATE_ROWS_SQL =
+            "INSERT INTO exchange_rate (id, base_currency_id, quote_currency_id, rate, date, source) " +
+            "SELECT CAST(RANDOM_UUID() AS VARCHAR(36)), " +
+            "'550e8400-e29b-41d4-a716-44665544000' || (MOD(X, 90) / 9), " +
+            "'550e8400-e29b-41d4-a716-44665544000' || MOD(MOD(X, 90) / 9 + 1 + MOD(MOD(X, 90), 9), 10), " +
+            "1 + MOD(X, 1000) / 10000.0, " +
+            "DATEADD('DAY', -(X / 90), TIMESTAMP '2024-01-01 12:00:00'), " +
+            "'BENCHMARK' " +
+            "FROM SYSTEM_RANGE(?, ?)";
+
+    // What paging with LIMIT/OFFSET would run: the same index walk through Hibernate, but skipping every earlier row
+    private static final String OFFSET_PAGE_SQL =
+            "SELECT er.id, er.rate, er.date, er.source FROM exchange_rate er " +
+            "WHERE er.base_currency_id = :baseId AND er.quote_currency_id = :quoteId " +
+            "AND er.date >= :startDate AND er.date <= :endDate " +
+            "ORDER BY er.base_currency_id, er.quote_currency_id, er.date LIMIT :limit OFFSET :offset";
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void benchmarkDatabase(DynamicPropertyRegistry registry) {
+        FileSystemUtils.deleteRecursively(new File(DATABASE_DIR + "/paginationdb.mv.db"));
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:./" + DATABASE_DIR + "/paginationdb");
+    }
+
+    @Test
+    void keysetPages_CostTheSameAtAnyDepth() {
+        long rows = Long.getLong("benchmark.rows", 10_000_000L);
+        for (long from = 0; from < rows; from += INSERT_CHUNK) {
+            jdbcTemplate.update(GENERATE_ROWS_SQL, from, Math.min(from + INSERT_CHUNK, rows) - 1);
+        }
+        jdbcTemplate.execute("ANALYZE");
+
+        Currency usd = currencyRepository.findByCode("USD").orElseThrow();
+        Currency eur = currencyRepository.findByCode("EUR").orElseThrow();
+        int pairRows = (int) (rows / PAIRS);
+        LocalDateTime firstDate = LATEST_DATE.minusDays(pairRows - 1);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        String plan = (String) offsetPage("EXPLAIN " + OFFSET_PAGE_SQL, usd, eur, firstDate, 0).get(0);
+        assertTrue(plan.contains("index sorted"), plan);
+
+        StringBuilder report = new StringBuilder(String.format(
+                "%n%d rows, %d for USD/EUR, %d per page%n   depth | keyset (us) | offset (us)%n",
+                rows, pairRows, PAGE_SIZE));
+        // Depths are fractions of the pair's history, so every table size pages to near the end
+        for (double fraction : new double[]{0, 0.25, 0.5, 0.9}) {
+            int depth = (int) (pairRows * fraction);
+            // The keyset cursor for a page starting at row `depth` is the date of the row before it
+            LocalDateTime afterDate = depth == 0 ? null : firstDate.plusDays(depth - 1);
+            // Both run in a read-only transaction, as the service does
+            Supplier<List<ExchangeRateDTO>> keyset = () -> readOnly.execute(status -> exchangeRateRepository.findPage(
+                    usd, eur, firstDate, afterDate, LATEST_DATE, PAGE_SIZE));
+            Supplier<List<?>> offset = () -> readOnly.execute(status ->
+                    offsetPage(OFFSET_PAGE_SQL, usd, eur, firstDate, depth));
+
+            assertEquals(firstDate.plusDays(depth), keyset.get().get(0).getDate());
+            assertEquals(PAGE_SIZE, offset.get().size());
+
+            if (depth == 0) {
+                // Throwaway round so the first row does not pay for JIT compilation
+                measure(keyset);
+                measure(offset);
+            }
+            report.append(String.format("%8d | %11.1f | %11.1f%n", depth, measure(keyset), measure(offset)));
+        }
+        log.info("Exchange rate pagination benchmark:{}", report);
+    }
+
+    private List<?> offsetPage(String sql, Currency base, Currency quote, LocalDateTime startDate, int offset) {
+        return entityManager.createNativeQuery(sql)
+                .setParameter("baseId", base.getId())
+                .setParameter("quoteId", quote.getId())
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", LATEST_DATE)
+                .setParameter("limit", PAGE_SIZE)
+                .setParameter("offset", offset)
+                .getResultList();
+    }
+
+    private double measure(Supplier<?> page) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            page.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            page.get();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+    }
+}
@@ -0,0 +1,123 @@
+package com.cathaybank.currencyexchange.benchmark;
+
+import com.cathaybank.currencyexchange.CurrencyExchangeApplication;
+import com.cathaybank.currencyexchange.cache.LatestRateSnapshot;
+import com.cathaybank.currencyexchange.dto.CurrencyPair;
+import com.cathaybank.currencyexchange.dto.LatestRatesBatchRequest;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares resolving N latest rates with N {@code GET /exchange-rates/latest} calls against one
+ * {@code POST /exchange-rates/latest/batch} call, through the full MVC stack including interceptors and filters.
+ * <p>
+ * Disabled by default; run with {@code mvn test -Dtest=LatestRatesBatchBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest(classes = CurrencyExchangeApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:batchbenchmarkdb",
+        "scheduler.exchange-rate.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO",
+        "logging.level.com.cathaybank=INFO"
+})
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+public class LatestRatesBatchBenchmarkTest {
+
+    private static final List<String> CODES = List.of("USD", "EUR", "JPY", "GBP", "CHF", "CNY", "TWD", "HKD", "SGD", "AUD");
+    private static final int[] BATCH_SIZES = {10, 100, 1000};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LatestRateSnapshot latestRateSnapshot;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Test
+    void lookups_PerPairVersusBatch(@Autowired JdbcTemplate jdbcTemplate) throws Exception {
+        // One stored rate per USD leg; every other pair is answered from the snapshot's cross table
+        jdbcTemplate.update("INSERT INTO exchange_rate (id, base_currency_id, quote_currency_id, rate, date, source) " +
+                "SELECT CAST(RANDOM_UUID() AS VARCHAR(36)), u.id, c.id, 1.5, TIMESTAMP '2024-01-01 12:00:00', 'BENCHMARK' " +
+                "FROM currency u, currency c WHERE u.code = 'USD' AND c.code <> 'USD'");
+        latestRateSnapshot.replace(exchangeRateRepository.findLatestForAllPairs());
+
+        StringBuilder report = new StringBuilder("\n pairs | per-pair (ms) | batch (ms) | speed-up\n");
+        for (int size : BATCH_SIZES) {
+            List<CurrencyPair> pairs = pairs(size);
+            String body = objectMapper.writeValueAsString(new LatestRatesBatchRequest(pairs));
+
+            double perPairMillis = measure(() -> {
+                for (CurrencyPair pair : pairs) {
+                    mockMvc.perform(get("/exchange-rates/latest")
+                                    .param("baseCode", pair.getBaseCode())
+                                    .param("quoteCode", pair.getQuoteCode()))
+                            .andExpect(status().isOk());
+                }
+            });
+            double batchMillis = measure(() -> mockMvc.perform(post("/exchange-rates/latest/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.missing").isEmpty()));
+
+            report.append(String.format("%6d | %13.2f | %10.2f | %7.1fx%n",
+                    size, perPairMillis, batchMillis, perPairMillis / batchMillis));
+        }
+        log.info("Latest rate batch benchmark:{}", report);
+    }
+
+    private List<CurrencyPair> pairs(int size) {
+        List<CurrencyPair> pairs = new ArrayList<>(size);
+        for (int i = 0; pairs.size() < size; i++) {
+            String base = CODES.get(i % CODES.size());
+            String quote = CODES.get((i / CODES.size() + 1 + i) % CODES.size());
+            if (!base.equals(quote)) {
+                pairs.add(new CurrencyPair(base, quote));
+            }
+        }
+        return pairs;
+    }
+
+    private double measure(Lookup lookup) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            lookup.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            lookup.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+
+    @FunctionalInterface
+    private interface Lookup {
+        void run() throws Exception;
+    }
+}
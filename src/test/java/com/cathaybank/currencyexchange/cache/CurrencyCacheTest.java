@@ -0,0 +1,97 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
+import com.cathaybank.currencyexchange.repository.CurrencyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrencyCacheTest {
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+
+    private MeterRegistry meterRegistry;
+    private CurrencyCache currencyCache;
+    private Currency usdCurrency;
+    private Currency eurCurrency;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        currencyCache = new CurrencyCache(currencyRepository, meterRegistry);
+        usdCurrency = currency("1", "USD", "US Dollar");
+        eurCurrency = currency("2", "EUR", "Euro");
+    }
+
+    @Test
+    void lookups_LoadOnceAndNeverHitRepositoryAgain() {
+        // Arrange
+        when(currencyRepository.findAllByOrderByCodeAsc()).thenReturn(List.of(eurCurrency, usdCurrency));
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            currencyCache.findByCode("USD");
+            currencyCache.findById("2");
+        }
+
+        // Assert
+        assertEquals(usdCurrency, currencyCache.findByCode("USD").orElseThrow());
+        assertEquals(eurCurrency, currencyCache.findById("2").orElseThrow());
+        assertEquals(List.of(eurCurrency, usdCurrency), currencyCache.findAll());
+        verify(currencyRepository, times(1)).findAllByOrderByCodeAsc();
+        verifyNoMoreInteractions(currencyRepository);
+    }
+
+    @Test
+    void lookups_CountHitsAndMisses() {
+        // Arrange
+        when(currencyRepository.findAllByOrderByCodeAsc()).thenReturn(List.of(usdCurrency));
+
+        // Act
+        currencyCache.findByCode("USD");
+        currencyCache.findByCode("XXX");
+        currencyCache.findById("9");
+
+        // Assert
+        assertEquals(1, meterRegistry.get("currency.cache.lookups").tag("result", "hit").counter().count());
+        assertEquals(2, meterRegistry.get("currency.cache.lookups").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void onCurrenciesChanged_SwapsInFreshCopy() {
+        // Arrange
+        Currency jpyCurrency = currency("3", "JPY", "Japanese Yen");
+        when(currencyRepository.findAllByOrderByCodeAsc())
+                .thenReturn(List.of(usdCurrency))
+                .thenReturn(List.of(jpyCurrency, usdCurrency));
+        assertTrue(currencyCache.findByCode("JPY").isEmpty());
+
+        // Act
+        currencyCache.onCurrenciesChanged(new CurrenciesChangedEvent("3"));
+
+        // Assert
+        assertEquals(jpyCurrency, currencyCache.findByCode("JPY").orElseThrow());
+        assertEquals(jpyCurrency, currencyCache.findById("3").orElseThrow());
+        assertEquals(2, currencyCache.findAll().size());
+    }
+
+    private Currency currency(String id, String code, String name) {
+        Currency currency = new Currency();
+        currency.setId(id);
+        currency.setCode(code);
+        currency.setName(name);
+        return currency;
+    }
+}
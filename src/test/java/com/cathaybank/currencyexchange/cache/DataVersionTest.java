@@ -0,0 +1,67 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataVersionTest {
+
+    private final DataVersion dataVersion = new DataVersion();
+
+    @Test
+    void changes_MoveTheVersionOn() {
+        // Arrange
+        DataVersion.Stamp initial = dataVersion.current();
+
+        // Act
+        dataVersion.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of()));
+        DataVersion.Stamp afterRates = dataVersion.current();
+        dataVersion.onCurrenciesChanged(new CurrenciesChangedEvent("1"));
+        DataVersion.Stamp afterCurrencies = dataVersion.current();
+
+        // Assert
+        assertEquals(initial.getVersion() + 2, afterCurrencies.getVersion());
+        assertNotEquals(initial.getETag(), afterRates.getETag());
+        assertNotEquals(afterRates.getETag(), afterCurrencies.getETag());
+        assertTrue(afterCurrencies.getLastModifiedMillis() > afterRates.getLastModifiedMillis());
+        assertTrue(afterRates.getLastModifiedMillis() > initial.getLastModifiedMillis());
+    }
+
+    @Test
+    void bump_SameSecond_StillMovesLastModifiedOn() {
+        // Arrange
+        long initial = dataVersion.current().getLastModifiedMillis();
+
+        // Act: far more commits than can fall in different seconds
+        for (int i = 0; i < 90; i++) {
+            dataVersion.bump();
+        }
+
+        // Assert
+        assertTrue(dataVersion.current().getLastModifiedMillis() >= initial + 90_000);
+        assertEquals(0, dataVersion.current().getLastModifiedMillis() % 1000);
+    }
+
+    @Test
+    void stamp_IsAWeakETagWithAWholeSecondLastModified() {
+        // Act
+        DataVersion.Stamp stamp = dataVersion.current();
+
+        // Assert
+        assertTrue(stamp.getETag().matches("W/\"[0-9a-z]+-0\""), stamp.getETag());
+        assertEquals(0, stamp.getLastModifiedMillis() % 1000);
+    }
+
+    @Test
+    void eTags_DifferBetweenRestarts() throws InterruptedException {
+        // Arrange
+        Thread.sleep(2);
+
+        // Act & Assert
+        assertNotEquals(dataVersion.current().getETag(), new DataVersion().current().getETag());
+    }
+}
@@ -0,0 +1,209 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatestRateSnapshotTest {
+
+    private MeterRegistry meterRegistry;
+    private LatestRateSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        snapshot = new LatestRateSnapshot(null, meterRegistry);
+    }
+
+    @Test
+    void find_BeforeLoad_IsEmptyAndNotLoaded() {
+        assertFalse(snapshot.isLoaded());
+        assertTrue(snapshot.find("USD", "EUR").isEmpty());
+    }
+
+    @Test
+    void replace_KeepsNewestRatePerPair() {
+        // Arrange
+        ExchangeRateDTO older = rate("USD", "EUR", "0.91", LocalDateTime.of(2024, 1, 1, 12, 0));
+        ExchangeRateDTO newer = rate("USD", "EUR", "0.92", LocalDateTime.of(2024, 1, 2, 12, 0));
+        ExchangeRateDTO other = rate("EUR", "USD", "1.08", LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        // Act
+        snapshot.replace(List.of(newer, older, other));
+
+        // Assert
+        assertTrue(snapshot.isLoaded());
+        assertEquals(2, snapshot.size());
+        assertEquals(new BigDecimal("0.92"), snapshot.find("USD", "EUR").orElseThrow().getRate());
+        assertEquals(new BigDecimal("1.08"), snapshot.find("EUR", "USD").orElseThrow().getRate());
+    }
+
+    @Test
+    void onExchangeRatesUpdated_MergesWithoutDroppingOtherPairs() {
+        // Arrange
+        snapshot.replace(List.of(
+                rate("USD", "EUR", "0.91", LocalDateTime.of(2024, 1, 1, 12, 0)),
+                rate("USD", "JPY", "141.0", LocalDateTime.of(2024, 1, 1, 12, 0))));
+
+        // Act
+        snapshot.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of(
+                rate("USD", "EUR", "0.93", LocalDateTime.of(2024, 1, 3, 12, 0)),
+                rate("USD", "JPY", "140.0", LocalDateTime.of(2023, 12, 31, 12, 0)))));
+
+        // Assert
+        assertEquals(new BigDecimal("0.93"), snapshot.find("USD", "EUR").orElseThrow().getRate());
+        assertEquals(new BigDecimal("141.0"), snapshot.find("USD", "JPY").orElseThrow().getRate());
+    }
+
+    @Test
+    void onExchangeRatesUpdated_BeforeLoad_IsIgnored() {
+        snapshot.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of(
+                rate("USD", "EUR", "0.93", LocalDateTime.of(2024, 1, 3, 12, 0)))));
+
+        assertFalse(snapshot.isLoaded());
+        assertTrue(snapshot.find("USD", "EUR").isEmpty());
+    }
+
+    @Test
+    void load_RatesCommittedDuringTheQuery_AreKept() {
+        // Arrange: a sync commits after the query has read the older rate
+        ExchangeRateDTO older = rate("USD", "EUR", "0.91", LocalDateTime.of(2024, 1, 1, 12, 0));
+        ExchangeRateDTO committed = rate("USD", "EUR", "0.92", LocalDateTime.of(2024, 1, 2, 12, 0));
+
+        // Act
+        snapshot.load(() -> {
+            snapshot.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of(committed)));
+            return List.of(older);
+        });
+        snapshot.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of(
+                rate("USD", "JPY", "141.0", LocalDateTime.of(2024, 1, 2, 12, 0)))));
+
+        // Assert
+        assertEquals(new BigDecimal("0.92"), snapshot.find("USD", "EUR").orElseThrow().getRate());
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void find_PairNotStored_IsTriangulatedThroughPivot() {
+        // Arrange
+        snapshot.replace(List.of(
+                rate("USD", "TWD", "31.25", LocalDateTime.of(2024, 1, 2, 12, 0)),
+                rate("USD", "SGD", "1.25", LocalDateTime.of(2024, 1, 1, 12, 0))));
+
+        // Act
+        ExchangeRateDTO twdSgd = snapshot.find("TWD", "SGD").orElseThrow();
+
+        // Assert: TWD/SGD = 1 / (USD/TWD) * USD/SGD
+        assertEquals(new BigDecimal("0.040000"), twdSgd.getRate());
+        assertEquals("CROSS:USD", twdSgd.getSource());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 12, 0), twdSgd.getDate());
+        assertEquals(2, snapshot.size());
+        assertEquals(6, snapshot.pairCount());
+    }
+
+    @Test
+    void find_ReverseOfStoredPair_IsInverted() {
+        snapshot.replace(List.of(rate("USD", "JPY", "125", LocalDateTime.of(2024, 1, 1, 12, 0))));
+
+        ExchangeRateDTO jpyUsd = snapshot.find("JPY", "USD").orElseThrow();
+
+        assertEquals(new BigDecimal("0.008000"), jpyUsd.getRate());
+        assertEquals("INVERSE:OANDA", jpyUsd.getSource());
+    }
+
+    @Test
+    void find_PrefersPivotWithFreshestLegs() {
+        // Arrange: the EUR legs are a day newer than the USD legs
+        snapshot.replace(List.of(
+                rate("TWD", "USD", "0.03", LocalDateTime.of(2024, 1, 1, 12, 0)),
+                rate("USD", "SGD", "1.30", LocalDateTime.of(2024, 1, 1, 12, 0)),
+                rate("TWD", "EUR", "0.029", LocalDateTime.of(2024, 1, 2, 12, 0)),
+                rate("EUR", "SGD", "1.40", LocalDateTime.of(2024, 1, 2, 12, 0))));
+
+        // Act
+        ExchangeRateDTO twdSgd = snapshot.find("TWD", "SGD").orElseThrow();
+
+        // Assert
+        assertEquals("CROSS:EUR", twdSgd.getSource());
+        assertEquals(new BigDecimal("0.040600"), twdSgd.getRate());
+    }
+
+    @Test
+    void merge_StoredRateReplacesDerivedOne() {
+        snapshot.replace(List.of(rate("USD", "EUR", "0.80", LocalDateTime.of(2024, 1, 1, 12, 0))));
+        assertEquals("INVERSE:OANDA", snapshot.find("EUR", "USD").orElseThrow().getSource());
+
+        snapshot.merge(List.of(rate("EUR", "USD", "1.24", LocalDateTime.of(2024, 1, 2, 12, 0))));
+
+        assertEquals(new BigDecimal("1.24"), snapshot.find("EUR", "USD").orElseThrow().getRate());
+        assertEquals("OANDA", snapshot.find("EUR", "USD").orElseThrow().getSource());
+    }
+
+    @Test
+    void find_ReverseOfZeroRate_IsNotDerived() {
+        snapshot.replace(List.of(rate("USD", "XXX", "0", LocalDateTime.of(2024, 1, 1, 12, 0))));
+
+        assertTrue(snapshot.find("XXX", "USD").isEmpty());
+    }
+
+    @Test
+    void merge_DerivesTheSamePairsAsAFullRebuild() {
+        // Arrange
+        LocalDateTime day = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<ExchangeRateDTO> stored = List.of(
+                rate("USD", "EUR", "0.91", day),
+                rate("USD", "JPY", "141.0", day.plusDays(1)),
+                rate("EUR", "GBP", "0.86", day),
+                rate("TWD", "USD", "0.032", day.plusDays(2)));
+        List<ExchangeRateDTO> changed = List.of(
+                rate("EUR", "GBP", "0.87", day.plusDays(3)),
+                rate("SGD", "JPY", "106.0", day.plusDays(3)));
+        snapshot.replace(stored);
+        LatestRateSnapshot rebuilt = new LatestRateSnapshot(null, new SimpleMeterRegistry());
+        rebuilt.replace(Stream.concat(stored.stream(), changed.stream()).toList());
+
+        // Act
+        snapshot.merge(changed);
+
+        // Assert
+        List<String> codes = List.of("USD", "EUR", "JPY", "GBP", "TWD", "SGD");
+        assertEquals(rebuilt.pairCount(), snapshot.pairCount());
+        for (String base : codes) {
+            for (String quote : codes) {
+                assertEquals(rebuilt.find(base, quote), snapshot.find(base, quote), base + "/" + quote);
+            }
+        }
+    }
+
+    @Test
+    void ageGauge_IsRegisteredAndReportsAgeOnceLoaded() {
+        TimeGauge gauge = meterRegistry.get("exchange.rate.snapshot.age").timeGauge();
+        assertTrue(Double.isNaN(gauge.value(TimeUnit.MILLISECONDS)));
+
+        snapshot.replace(List.of());
+
+        assertTrue(gauge.value(TimeUnit.MILLISECONDS) >= 0);
+    }
+
+    private ExchangeRateDTO rate(String base, String quote, String rate, LocalDateTime date) {
+        return ExchangeRateDTO.builder()
+                .baseCurrencyCode(base)
+                .quoteCurrencyCode(quote)
+                .rate(new BigDecimal(rate))
+                .date(date)
+                .source("OANDA")
+                .build();
+    }
+}
@@ -0,0 +1,221 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RateHistoryStoreTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+
+    @Mock
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private MeterRegistry meterRegistry;
+    private RateHistoryStore store;
+    private Currency usdCurrency;
+    private Currency eurCurrency;
+    private List<ExchangeRateDTO> stored;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new RateHistoryStore(exchangeRateRepository, transactionManager, meterRegistry, true,
+                directory.toString());
+        usdCurrency = currency("USD", "US Dollar");
+        eurCurrency = currency("EUR", "Euro");
+
+        // A year of USD/EUR, one rate per day at noon, as syncs write them
+        stored = new ArrayList<>();
+        FIRST_DAY.datesUntil(FIRST_DAY.plusYears(1))
+                .forEach(date -> stored.add(rate(date.atTime(12, 0), "1." + date.getDayOfYear(), "OANDA")));
+        lenient().when(exchangeRateRepository.streamByBaseCurrencyCodeAndQuoteCurrencyCodeAndDateBetween(
+                        eq("USD"), eq("EUR"), any(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(stored).stream());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.destroy();
+    }
+
+    @Test
+    void findPage_FirstRead_BuildsThePairOnceAndScansTheRange() {
+        // Act
+        List<ExchangeRateDTO> march = find(LocalDate.of(2023, 3, 1).atStartOfDay(), null,
+                LocalDate.of(2023, 3, 31).atTime(23, 59, 59), 100);
+        List<ExchangeRateDTO> page = find(FIRST_DAY.atStartOfDay(), null, FIRST_DAY.plusYears(1).atStartOfDay(), 10);
+
+        // Assert
+        assertEquals(31, march.size());
+        assertEquals(LocalDate.of(2023, 3, 1).atTime(12, 0), march.get(0).getDate());
+        assertEquals(new BigDecimal("1.600000"), march.get(0).getRate());
+        assertEquals("US Dollar", march.get(0).getBaseCurrencyName());
+        assertEquals("OANDA", march.get(30).getSource());
+        assertEquals(stored.get(59).getId(), march.get(0).getId());
+        assertEquals(10, page.size());
+        verify(exchangeRateRepository, times(1))
+                .streamByBaseCurrencyCodeAndQuoteCurrencyCodeAndDateBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    void findPage_AfterDate_StartsOnTheNextDay() {
+        // Act
+        List<ExchangeRateDTO> page = find(FIRST_DAY.atStartOfDay(), FIRST_DAY.plusDays(4).atTime(12, 0),
+                FIRST_DAY.plusDays(6).atTime(23, 59, 59), 10);
+
+        // Assert
+        assertEquals(List.of(FIRST_DAY.plusDays(5).atTime(12, 0), FIRST_DAY.plusDays(6).atTime(12, 0)),
+                page.stream().map(ExchangeRateDTO::getDate).toList());
+    }
+
+    @Test
+    void onExchangeRatesUpdated_LaterDays_AreAppendedWithoutRebuilding() {
+        // Arrange
+        LocalDate nextDay = FIRST_DAY.plusYears(1);
+        find(FIRST_DAY.atStartOfDay(), null, FIRST_DAY.atStartOfDay(), 1);
+
+        // Act
+        store.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of(
+                rate(nextDay.plusDays(1).atTime(12, 0), "0.95", "MANUAL"),
+                rate(nextDay.atTime(12, 0), "0.94", "OANDA"))));
+        List<ExchangeRateDTO> page = find(nextDay.minusDays(1).atStartOfDay(), null,
+                nextDay.plusDays(1).atTime(23, 59, 59), 10);
+
+        // Assert
+        assertEquals(3, page.size());
+        assertEquals(new BigDecimal("0.940000"), page.get(1).getRate());
+        assertEquals("MANUAL", page.get(2).getSource());
+        verify(exchangeRateRepository, times(1))
+                .streamByBaseCurrencyCodeAndQuoteCurrencyCodeAndDateBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    void onExchangeRatesUpdated_EarlierDay_RebuildsOnNextRead() {
+        // Arrange: a backfilled day before the start of the history
+        find(FIRST_DAY.atStartOfDay(), null, FIRST_DAY.atStartOfDay(), 1);
+        ExchangeRateDTO backfilled = rate(FIRST_DAY.minusDays(1).atTime(12, 0), "0.99", "OANDA");
+        stored.add(0, backfilled);
+
+        // Act
+        store.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of(backfilled)));
+        List<ExchangeRateDTO> page = find(FIRST_DAY.minusDays(7).atStartOfDay(), null,
+                FIRST_DAY.atTime(23, 59, 59), 10);
+
+        // Assert
+        assertEquals(2, page.size());
+        assertEquals(new BigDecimal("0.990000"), page.get(0).getRate());
+        verify(exchangeRateRepository, times(2))
+                .streamByBaseCurrencyCodeAndQuoteCurrencyCodeAndDateBetween(any(), any(), any(), any());
+    }
+
+    @Test
+    void findPage_RatesAtOtherTimes_AreHeldToo() {
+        // Arrange: a manual rate in the morning of a day that also has its noon rate
+        ExchangeRateDTO manual = rate(FIRST_DAY.plusDays(1).atTime(9, 30, 0, 123_000), "1.1", "MANUAL");
+        stored.add(1, manual);
+
+        // Act
+        List<ExchangeRateDTO> page = find(FIRST_DAY.plusDays(1).atStartOfDay(), null,
+                FIRST_DAY.plusDays(1).atTime(23, 59, 59), 10);
+        List<ExchangeRateDTO> next = find(FIRST_DAY.atStartOfDay(), manual.getDate(),
+                FIRST_DAY.plusDays(2).atStartOfDay(), 10);
+
+        // Assert
+        assertEquals(List.of(manual.getDate(), FIRST_DAY.plusDays(1).atTime(12, 0)),
+                page.stream().map(ExchangeRateDTO::getDate).toList());
+        assertEquals(manual.getId(), page.get(0).getId());
+        assertEquals(FIRST_DAY.plusDays(1).atTime(12, 0), next.get(0).getDate());
+    }
+
+    @Test
+    void findPage_PairWithAnUnrepresentableRate_IsLeftToTheDatabaseUntilTheNextChange() {
+        // Arrange: more decimals than the rate column keeps
+        ExchangeRateDTO tooPrecise = rate(FIRST_DAY.plusYears(2).atTime(12, 0), "1.1234567", "MANUAL");
+        stored.add(tooPrecise);
+
+        // Act
+        Optional<List<ExchangeRateDTO>> page = store.findPage(usdCurrency, eurCurrency, FIRST_DAY.atStartOfDay(),
+                null, FIRST_DAY.plusYears(3).atStartOfDay(), 10);
+        double unsupported = meterRegistry.get("rate.history.unsupported.pairs").gauge().value();
+        stored.remove(tooPrecise);
+        store.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of(
+                rate(FIRST_DAY.plusYears(2).atTime(12, 0), "1.1", "MANUAL"))));
+
+        // Assert
+        assertTrue(page.isEmpty());
+        assertEquals(1.0, unsupported);
+        assertEquals(1.0, meterRegistry.get("rate.history.database.reads").counter().count());
+        assertEquals(10, find(FIRST_DAY.atStartOfDay(), null, FIRST_DAY.plusYears(3).atStartOfDay(), 10).size());
+        assertEquals(0.0, meterRegistry.get("rate.history.unsupported.pairs").gauge().value());
+    }
+
+    @Test
+    void findPage_Disabled_IsEmpty() throws IOException {
+        // Arrange
+        RateHistoryStore disabled = new RateHistoryStore(exchangeRateRepository, transactionManager, meterRegistry,
+                false, "");
+
+        // Act & Assert
+        assertTrue(disabled.findPage(usdCurrency, eurCurrency, FIRST_DAY.atStartOfDay(), null,
+                FIRST_DAY.atStartOfDay(), 1).isEmpty());
+        verifyNoInteractions(exchangeRateRepository);
+    }
+
+    private List<ExchangeRateDTO> find(LocalDateTime startDate, LocalDateTime afterDate, LocalDateTime endDate,
+                                       int limit) {
+        return store.findPage(usdCurrency, eurCurrency, startDate, afterDate, endDate, limit).orElseThrow();
+    }
+
+    private static ExchangeRateDTO rate(LocalDateTime date, String rate, String source) {
+        return ExchangeRateDTO.builder()
+                .id(UUID.nameUUIDFromBytes((date + " " + rate).getBytes()).toString())
+                .baseCurrencyCode("USD")
+                .quoteCurrencyCode("EUR")
+                .rate(new BigDecimal(rate))
+                .date(date)
+                .source(source)
+                .build();
+    }
+
+    private static Currency currency(String code, String name) {
+        Currency currency = new Currency();
+        currency.setCode(code);
+        currency.setName(name);
+        return currency;
+    }
+}
@@ -0,0 +1,148 @@
+package com.cathaybank.currencyexchange.cache;
+
+import com.cathaybank.currencyexchange.dto.ApiResponse;
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
+import com.cathaybank.currencyexchange.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseBodyCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private DataVersion dataVersion;
+    private MeterRegistry meterRegistry;
+    private ResponseBodyCache responseBodyCache;
+
+    @BeforeEach
+    void setUp() {
+        dataVersion = new DataVersion();
+        meterRegistry = new SimpleMeterRegistry();
+        responseBodyCache = new ResponseBodyCache(dataVersion, objectMapper, meterRegistry, true, 2,
+                DataSize.ofBytes(100));
+    }
+
+    @Test
+    void write_SameVersion_EncodesOnce() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<?> body = () -> ApiResponse.success("call " + calls.incrementAndGet());
+
+        // Act
+        MockHttpServletResponse first = write("currencies", body, null);
+        MockHttpServletResponse second = write("currencies", body, null);
+
+        // Assert
+        assertEquals(1, calls.get());
+        assertArrayEquals(first.getContentAsByteArray(), second.getContentAsByteArray());
+        assertEquals("application/json", second.getContentType());
+        assertEquals(second.getContentAsByteArray().length, second.getContentLength());
+        assertEquals(1.0, meterRegistry.get("response.cache.lookups").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void write_AfterDataChange_EncodesTheNewData() throws Exception {
+        // Arrange
+        write("currencies", () -> ApiResponse.success("old"), null);
+
+        // Act: the cache is cleared and the version moves on after every committed change
+        responseBodyCache.onCurrenciesChanged(new CurrenciesChangedEvent("1"));
+        dataVersion.bump();
+        MockHttpServletResponse response = write("currencies", () -> ApiResponse.success("new"), null);
+
+        // Assert
+        assertTrue(response.getContentAsString().contains("\"data\":\"new\""), response.getContentAsString());
+    }
+
+    @Test
+    void write_BodyOfAnOlderVersion_IsNotServed() throws Exception {
+        // Arrange
+        write("currencies", () -> ApiResponse.success("old"), null);
+
+        // Act: the version moved on but the cache has not been cleared yet
+        dataVersion.bump();
+        MockHttpServletResponse response = write("currencies", () -> ApiResponse.success("new"), null);
+
+        // Assert
+        assertTrue(response.getContentAsString().contains("\"data\":\"new\""), response.getContentAsString());
+    }
+
+    @Test
+    void write_AcceptingGzip_WritesTheGzipBodyAboveTheMinimumSize() throws Exception {
+        // Arrange
+        ApiResponse<List<String>> large = ApiResponse.success(Collections.nCopies(50, "USD"));
+
+        // Act
+        MockHttpServletResponse gzipped = write("large", () -> large, "deflate, gzip;q=0.8");
+        MockHttpServletResponse identity = write("large", () -> large, "gzip;q=0");
+        MockHttpServletResponse small = write("small", () -> ApiResponse.success("USD"), "gzip");
+
+        // Assert
+        assertEquals("gzip", gzipped.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, gzipped.getHeader(HttpHeaders.VARY));
+        assertArrayEquals(identity.getContentAsByteArray(), gunzip(gzipped.getContentAsByteArray()));
+        assertNull(identity.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(small.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void write_Failure_IsNotCached() throws Exception {
+        // Act
+        assertThrows(ResourceNotFoundException.class, () -> write("latest?USD/XXX", () -> {
+            throw new ResourceNotFoundException("No exchange rate found for USD/XXX");
+        }, null));
+        MockHttpServletResponse response = write("latest?USD/XXX", () -> ApiResponse.success("created since"), null);
+
+        // Assert
+        assertTrue(response.getContentAsString().contains("created since"), response.getContentAsString());
+    }
+
+    @Test
+    void write_BeyondMaxEntries_IsEncodedOnEveryRequest() throws Exception {
+        // Arrange
+        write("a", () -> ApiResponse.success("a"), null);
+        write("b", () -> ApiResponse.success("b"), null);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        write("c", () -> ApiResponse.success("c" + calls.incrementAndGet()), null);
+        write("c", () -> ApiResponse.success("c" + calls.incrementAndGet()), null);
+
+        // Assert
+        assertEquals(2, calls.get());
+        assertEquals(2.0, meterRegistry.get("response.cache.size").gauge().value());
+    }
+
+    private MockHttpServletResponse write(String key, Supplier<?> body, String acceptEncoding) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/" + key);
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responseBodyCache.write(key, request, response, body);
+        return response;
+    }
+
+    private static byte[] gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        }
+    }
+}
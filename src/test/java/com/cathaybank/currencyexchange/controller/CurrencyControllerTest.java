@@ -1,14 +1,24 @@
 package com.cathaybank.currencyexchange.controller;
 
+import com.cathaybank.currencyexchange.cache.DataVersion;
+import com.cathaybank.currencyexchange.cache.ResponseBodyCache;
+import com.cathaybank.currencyexchange.config.I18nConfig;
 import com.cathaybank.currencyexchange.dto.CurrencyDTO;
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
 import com.cathaybank.currencyexchange.exception.ResourceNotFoundException;
 import com.cathaybank.currencyexchange.service.CurrencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -23,6 +33,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CurrencyController.class)
+@Import({I18nConfig.class, DataVersion.class, ResponseBodyCache.class,
+        CurrencyControllerTest.MetricsConfig.class})
 public class CurrencyControllerTest {
 
     @Autowired
@@ -31,15 +43,32 @@ public class CurrencyControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DataVersion dataVersion;
+
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
     @MockBean
     private CurrencyService currencyService;
 
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
     private CurrencyDTO usdCurrency;
     private CurrencyDTO eurCurrency;
     private List<CurrencyDTO> currencies;
 
     @BeforeEach
     void setUp() {
+        // Each test stubs its own data, so none may see a body cached by another
+        responseBodyCache.onCurrenciesChanged(new CurrenciesChangedEvent(null));
+
         usdCurrency = new CurrencyDTO();
         usdCurrency.setId("1");
         usdCurrency.setCode("USD");
@@ -69,6 +98,53 @@ public class CurrencyControllerTest {
         verify(currencyService).getAllCurrencies();
     }
 
+    @Test
+    void getAllCurrencies_WithCurrentETag_ReturnsNotModifiedWithoutCallingTheService() throws Exception {
+        // Arrange
+        String eTag = dataVersion.current().getETag();
+
+        // Act & Assert
+        mockMvc.perform(get("/currencies").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        verifyNoInteractions(currencyService);
+    }
+
+    @Test
+    void getAllCurrencies_ModifiedSince_ReturnsValidators() throws Exception {
+        // Arrange
+        when(currencyService.getAllCurrencies()).thenReturn(currencies);
+        long lastModified = dataVersion.current().getLastModifiedMillis();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfModifiedSince(lastModified - 1000);
+
+        // Act & Assert
+        mockMvc.perform(get("/currencies").headers(headers))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, dataVersion.current().getETag()))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, lastModified))
+                .andExpect(jsonPath("$.data", hasSize(2)));
+    }
+
+    @Test
+    void getAllCurrencies_UnchangedData_IsWrittenFromTheCache() throws Exception {
+        // Arrange
+        when(currencyService.getAllCurrencies()).thenReturn(currencies);
+        String first = mockMvc.perform(get("/currencies"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Act & Assert
+        mockMvc.perform(get("/currencies"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, dataVersion.current().getETag()))
+                .andExpect(content().string(first));
+
+        verify(currencyService, times(1)).getAllCurrencies();
+    }
+
     @Test
     void getCurrencyById_WhenCurrencyExists_ReturnsCurrency() throws Exception {
         // Arrange
@@ -94,6 +170,7 @@ public class CurrencyControllerTest {
         // Act & Assert
         mockMvc.perform(get("/currencies/3"))
                 .andExpect(status().isNotFound())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
                 .andExpect(jsonPath("$.success", is(false)))
                 .andExpect(jsonPath("$.message", containsString("Currency not found")));
 
@@ -0,0 +1,507 @@
+package com.cathaybank.currencyexchange.controller;
+
+import com.cathaybank.currencyexchange.cache.DataVersion;
+import com.cathaybank.currencyexchange.cache.ResponseBodyCache;
+import com.cathaybank.currencyexchange.config.I18nConfig;
+import com.cathaybank.currencyexchange.dto.CurrencyPair;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.dto.ExchangeRatePageDTO;
+import com.cathaybank.currencyexchange.dto.LatestRatesBatchDTO;
+import com.cathaybank.currencyexchange.dto.LatestRatesBatchRequest;
+import com.cathaybank.currencyexchange.dto.SyncJobDTO;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import com.cathaybank.currencyexchange.exception.ResourceNotFoundException;
+import com.cathaybank.currencyexchange.service.ExchangeRateService;
+import com.cathaybank.currencyexchange.service.RateStreamService;
+import com.cathaybank.currencyexchange.service.SyncJobService;
+import com.cathaybank.currencyexchange.util.ExchangeRateSeriesProtobufConverter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExchangeRateController.class)
+@Import({I18nConfig.class, DataVersion.class, ResponseBodyCache.class,
+        ExchangeRateControllerTest.MetricsConfig.class})
+public class ExchangeRateControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataVersion dataVersion;
+
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
+    @MockBean
+    private ExchangeRateService exchangeRateService;
+
+    @MockBean
+    private SyncJobService syncJobService;
+
+    @MockBean
+    private RateStreamService rateStreamService;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Each test stubs its own data, so none may see a body cached by another
+        responseBodyCache.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of()));
+    }
+
+    @Test
+    void getLatestExchangeRate_UnchangedData_IsWrittenFromTheCachePerPair() throws Exception {
+        // Arrange
+        when(exchangeRateService.getLatestExchangeRate("USD", "EUR")).thenReturn(rate(LocalDateTime.of(2023, 1, 1, 12, 0)));
+        when(exchangeRateService.getLatestExchangeRate("EUR", "USD")).thenThrow(new ResourceNotFoundException("No rate"));
+
+        // Act & Assert
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/exchange-rates/latest").param("baseCode", "USD").param("quoteCode", "EUR"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.data.baseCurrencyCode", is("USD")));
+            mockMvc.perform(get("/exchange-rates/latest").param("baseCode", "EUR").param("quoteCode", "USD"))
+                    .andExpect(status().isNotFound());
+        }
+
+        verify(exchangeRateService, times(1)).getLatestExchangeRate("USD", "EUR");
+        verify(exchangeRateService, times(2)).getLatestExchangeRate("EUR", "USD");
+    }
+
+    @Test
+    void getLatestExchangeRate_WithCurrentETag_ReturnsNotModifiedWithoutCallingTheService() throws Exception {
+        // Arrange
+        String eTag = dataVersion.current().getETag();
+
+        // Act & Assert
+        mockMvc.perform(get("/exchange-rates/latest")
+                        .param("baseCode", "USD")
+                        .param("quoteCode", "EUR")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, must-revalidate, public, s-maxage=30"))
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(exchangeRateService);
+    }
+
+    @Test
+    void getLatestExchangeRate_AfterDataChange_ReturnsTheNewVersion() throws Exception {
+        // Arrange
+        String staleETag = dataVersion.current().getETag();
+        dataVersion.bump();
+        when(exchangeRateService.getLatestExchangeRate("USD", "EUR")).thenReturn(rate(LocalDateTime.of(2023, 1, 1, 12, 0)));
+
+        // Act & Assert
+        mockMvc.perform(get("/exchange-rates/latest")
+                        .param("baseCode", "USD")
+                        .param("quoteCode", "EUR")
+                        .header(HttpHeaders.IF_NONE_MATCH, staleETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, dataVersion.current().getETag()))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.data.baseCurrencyCode", is("USD")));
+    }
+
+    @Test
+    void getExchangeRates_WithMorePages_LinksTheNextPage() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        LocalDate end = LocalDate.of(2023, 12, 31);
+        when(exchangeRateService.getExchangeRates("USD", "EUR", start, end, null, 2))
+                .thenReturn(new ExchangeRatePageDTO(List.of(rate(start.atTime(12, 0)), rate(start.plusDays(1).atTime(12, 0))),
+                        "next-token"));
+
+        // Act & Assert
+        mockMvc.perform(get("/exchange-rates?baseCode=USD&quoteCode=EUR&startDate=2023-01-01&endDate=2023-12-31"
+                        + "&pageSize=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(header().string("Link", "<http://localhost/exchange-rates?baseCode=USD&quoteCode=EUR"
+                        + "&startDate=2023-01-01&endDate=2023-12-31&pageSize=2&pageToken=next-token>; rel=\"next\""));
+    }
+
+    @Test
+    void getExchangeRates_LastPage_HasNoLink() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        when(exchangeRateService.getExchangeRates("USD", "EUR", start, start, "last-token", null))
+                .thenReturn(new ExchangeRatePageDTO(List.of(rate(start.atTime(12, 0))), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/exchange-rates")
+                        .param("baseCode", "USD")
+                        .param("quoteCode", "EUR")
+                        .param("startDate", "2023-01-01")
+                        .param("endDate", "2023-01-01")
+                        .param("pageToken", "last-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    void getExchangeRates_InvalidPageSize_IsNotCacheable() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        when(exchangeRateService.getExchangeRates("USD", "EUR", start, start, null, 0))
+                .thenThrow(new IllegalArgumentException("pageSize must be at least 1"));
+
+        // Act & Assert
+        mockMvc.perform(get("/exchange-rates?baseCode=USD&quoteCode=EUR&startDate=2023-01-01&endDate=2023-01-01"
+                        + "&pageSize=0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"));
+    }
+
+    @Test
+    void getExchangeRates_AnyMediaType_ReturnsOneObjectPerRate() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        when(exchangeRateService.getExchangeRates("USD", "EUR", start, start, null, null))
+                .thenReturn(new ExchangeRatePageDTO(List.of(rate(start.atTime(12, 0))), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/exchange-rates?baseCode=USD&quoteCode=EUR&startDate=2023-01-01&endDate=2023-01-01")
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data[0].baseCurrencyName", is("US Dollar")));
+    }
+
+    @Test
+    void getExchangeRates_EachEncoding_HasItsOwnETag() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        when(exchangeRateService.getExchangeRates("USD", "EUR", start, start, null, null))
+                .thenReturn(new ExchangeRatePageDTO(List.of(rate(start.atTime(12, 0))), null));
+        String url = "/exchange-rates?baseCode=USD&quoteCode=EUR&startDate=2023-01-01&endDate=2023-01-01";
+        String jsonETag = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert: the JSON ETag does not validate the Protobuf encoding, and its own ETag does
+        String protobufETag = mockMvc.perform(get(url).accept(ExchangeRateSeriesProtobufConverter.PROTOBUF)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExchangeRateSeriesProtobufConverter.PROTOBUF))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(jsonETag, protobufETag);
+        assertEquals(dataVersion.current().getETag(), jsonETag);
+
+        mockMvc.perform(get(url).accept(ExchangeRateSeriesProtobufConverter.PROTOBUF)
+                        .header(HttpHeaders.IF_NONE_MATCH, protobufETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        mockMvc.perform(get(url).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, protobufETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    void getExchangeRates_ColumnarJson_ReturnsThePairOnceAndParallelArrays() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        when(exchangeRateService.getExchangeRates("USD", "EUR", start, start.plusDays(1), null, null))
+                .thenReturn(new ExchangeRatePageDTO(List.of(rate(start.atTime(12, 0)),
+                        rate(start.plusDays(1).atTime(12, 0))), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/exchange-rates?baseCode=USD&quoteCode=EUR&startDate=2023-01-01&endDate=2023-01-02")
+                        .accept(ExchangeRateController.COLUMNAR_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ExchangeRateController.COLUMNAR_JSON_VALUE))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andExpect(jsonPath("$.data.baseCurrencyName", is("US Dollar")))
+                .andExpect(jsonPath("$.data.quoteCurrencyCode", is("EUR")))
+                .andExpect(jsonPath("$.data.dates", contains("2023/01/01 12:00:00", "2023/01/02 12:00:00")))
+                .andExpect(jsonPath("$.data.rates", contains(0.92, 0.92)))
+                .andExpect(jsonPath("$.data.source", is("TEST")))
+                .andExpect(jsonPath("$.data.sources").doesNotExist());
+    }
+
+    @Test
+    void getExchangeRates_Cbor_ReturnsTheColumnarShape() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        when(exchangeRateService.getExchangeRates("USD", "EUR", start, start, null, null))
+                .thenReturn(new ExchangeRatePageDTO(List.of(rate(start.atTime(12, 0))), null));
+
+        // Act
+        byte[] body = mockMvc.perform(get("/exchange-rates?baseCode=USD&quoteCode=EUR&startDate=2023-01-01"
+                        + "&endDate=2023-01-01").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        JsonNode data = new CBORMapper().readTree(body).get("data");
+        assertEquals("USD", data.get("baseCurrencyCode").asText());
+        assertEquals("2023/01/01 12:00:00", data.get("dates").get(0).asText());
+        assertEquals(new BigDecimal("0.92"), data.get("rates").get(0).decimalValue());
+    }
+
+    @Test
+    void getExchangeRates_Protobuf_ReturnsAnExchangeRateSeriesMessage() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        ExchangeRateDTO other = rate(start.plusDays(1).atTime(12, 0));
+        other.setRate(new BigDecimal("0.925"));
+        other.setSource("MANUAL");
+        when(exchangeRateService.getExchangeRates("USD", "EUR", start, start.plusDays(1), null, null))
+                .thenReturn(new ExchangeRatePageDTO(List.of(rate(start.atTime(12, 0)), other), null));
+
+        // Act
+        byte[] body = mockMvc.perform(get("/exchange-rates?baseCode=USD&quoteCode=EUR&startDate=2023-01-01"
+                        + "&endDate=2023-01-02").accept(ExchangeRateSeriesProtobufConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExchangeRateSeriesProtobufConverter.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        CodedInputStream in = CodedInputStream.newInstance(body);
+        assertEquals(tag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED), in.readTag());
+        assertEquals("USD", in.readString());
+        assertEquals(tag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED), in.readTag());
+        assertEquals("US Dollar", in.readString());
+        // Quote currency code and name
+        in.skipField(in.readTag());
+        in.skipField(in.readTag());
+        assertEquals(tag(5, WireFormat.WIRETYPE_LENGTH_DELIMITED), in.readTag());
+        int dates = in.pushLimit(in.readRawVarint32());
+        assertEquals(start.atTime(12, 0).toEpochSecond(ZoneOffset.UTC), in.readInt64());
+        assertEquals(start.plusDays(1).atTime(12, 0).toEpochSecond(ZoneOffset.UTC), in.readInt64());
+        assertTrue(in.isAtEnd());
+        in.popLimit(dates);
+        assertEquals(tag(6, WireFormat.WIRETYPE_LENGTH_DELIMITED), in.readTag());
+        int rates = in.pushLimit(in.readRawVarint32());
+        assertEquals(920, in.readSInt64());
+        assertEquals(925, in.readSInt64());
+        in.popLimit(rates);
+        assertEquals(tag(7, WireFormat.WIRETYPE_VARINT), in.readTag());
+        assertEquals(3, in.readUInt32());
+        assertEquals(tag(9, WireFormat.WIRETYPE_LENGTH_DELIMITED), in.readTag());
+        assertEquals("TEST", in.readString());
+        assertEquals(tag(9, WireFormat.WIRETYPE_LENGTH_DELIMITED), in.readTag());
+        assertEquals("MANUAL", in.readString());
+        assertTrue(in.isAtEnd());
+    }
+
+    @Test
+    void getExchangeRates_ProtobufWithInvalidPageSize_ReportsTheErrorAsJson() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        when(exchangeRateService.getExchangeRates("USD", "EUR", start, start, null, 0))
+                .thenThrow(new IllegalArgumentException("pageSize must be at least 1"));
+
+        // Act & Assert
+        mockMvc.perform(get("/exchange-rates?baseCode=USD&quoteCode=EUR&startDate=2023-01-01&endDate=2023-01-01"
+                        + "&pageSize=0").accept(ExchangeRateSeriesProtobufConverter.PROTOBUF))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message", is("pageSize must be at least 1")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamExchangeRates_WritesOneJsonLinePerRate() throws Exception {
+        // Arrange
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        LocalDate end = LocalDate.of(2023, 1, 3);
+        when(exchangeRateService.streamExchangeRates(eq("USD"), eq("EUR"), eq(start), eq(end), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<ExchangeRateDTO> consumer = invocation.getArgument(4);
+                    start.datesUntil(end.plusDays(1)).forEach(date -> consumer.accept(rate(date.atTime(12, 0))));
+                    return 3L;
+                });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/exchange-rates/history")
+                        .param("baseCode", "USD")
+                        .param("quoteCode", "EUR")
+                        .param("startDate", "2023-01-01")
+                        .param("endDate", "2023-01-03"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"baseCurrencyCode\":\"USD\""), lines[0]);
+        assertTrue(lines[2].contains("2023/01/03"), lines[2]);
+        assertEquals(1, meterRegistry.get("exchange.rate.stream.first-byte").timer().count());
+    }
+
+    @Test
+    void streamRateUpdates_WritesServerSentEvents() throws Exception {
+        // Arrange
+        when(rateStreamService.subscribe(List.of("USD/EUR", "USD/JPY"))).thenReturn(Flux.just(
+                ServerSentEvent.builder("{\"rate\":0.92}").event("rate").build(),
+                ServerSentEvent.builder("{\"rate\":141.03}").event("rate").build()));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/exchange-rates/stream").param("pairs", "USD/EUR,USD/JPY"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert: unlike the history stream, the event stream is not cut off after the async request timeout
+        assertEquals(-1, result.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("event:rate\ndata:{\"rate\":0.92}\n\nevent:rate\ndata:{\"rate\":141.03}\n\n"));
+    }
+
+    @Test
+    void getLatestExchangeRates_ReturnsRatesAndMissingPairs() throws Exception {
+        // Arrange
+        CurrencyPair usdEur = new CurrencyPair("USD", "EUR");
+        CurrencyPair usdXxx = new CurrencyPair("USD", "XXX");
+        when(exchangeRateService.getLatestExchangeRates(List.of(usdEur, usdXxx))).thenReturn(LatestRatesBatchDTO.builder()
+                .rates(List.of(rate(LocalDateTime.of(2024, 1, 2, 12, 0))))
+                .missing(List.of(usdXxx))
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/exchange-rates/latest/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LatestRatesBatchRequest(List.of(usdEur, usdXxx)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.data.rates", hasSize(1)))
+                .andExpect(jsonPath("$.data.rates[0].quoteCurrencyCode", is("EUR")))
+                .andExpect(jsonPath("$.data.missing[0].quoteCode", is("XXX")));
+    }
+
+    @Test
+    void getLatestExchangeRates_WithNoPairs_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/exchange-rates/latest/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LatestRatesBatchRequest(List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.error.field", is("pairs")))
+                .andExpect(jsonPath("$.error.message", is("At least one currency pair is required")));
+
+        verifyNoInteractions(exchangeRateService);
+    }
+
+    @Test
+    void syncExchangeRates_ReturnsAcceptedWithJobLocation() throws Exception {
+        // Arrange
+        when(syncJobService.submit(SyncJobDTO.Trigger.MANUAL)).thenReturn(SyncJobDTO.builder()
+                .id("job-1")
+                .status(SyncJobDTO.Status.QUEUED)
+                .trigger(SyncJobDTO.Trigger.MANUAL)
+                .triggerCount(1)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/exchange-rates/sync"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/exchange-rates/sync/job-1"))
+                .andExpect(jsonPath("$.data.id", is("job-1")))
+                .andExpect(jsonPath("$.data.status", is("QUEUED")));
+    }
+
+    @Test
+    void getSyncJob_ReturnsPerPairProgress() throws Exception {
+        // Arrange
+        when(syncJobService.getJob("job-1")).thenReturn(SyncJobDTO.builder()
+                .id("job-1")
+                .status(SyncJobDTO.Status.RUNNING)
+                .totalPairs(2)
+                .completedPairs(1)
+                .pairs(List.of(
+                        new SyncJobDTO.PairProgress("USD/EUR", SyncJobDTO.PairStatus.SYNCED, 1),
+                        new SyncJobDTO.PairProgress("USD/JPY", SyncJobDTO.PairStatus.PENDING, 0)))
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/exchange-rates/sync/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.completedPairs", is(1)))
+                .andExpect(jsonPath("$.data.pairs", hasSize(2)))
+                .andExpect(jsonPath("$.data.pairs[0].status", is("SYNCED")));
+    }
+
+    @Test
+    void getSyncJob_UnknownId_ReturnsNotFound() throws Exception {
+        // Arrange
+        when(syncJobService.getJob("missing")).thenThrow(new ResourceNotFoundException("Sync job not found: missing"));
+
+        // Act & Assert
+        mockMvc.perform(get("/exchange-rates/sync/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static int tag(int field, int wireType) {
+        return field << 3 | wireType;
+    }
+
+    private ExchangeRateDTO rate(LocalDateTime date) {
+        return new ExchangeRateDTO("1", "USD", "US Dollar", "EUR", "Euro", new BigDecimal("0.92"), date, "TEST");
+    }
+}
@@ -0,0 +1,66 @@
+package com.cathaybank.currencyexchange.controller;
+
+import com.cathaybank.currencyexchange.CurrencyExchangeApplication;
+import com.cathaybank.currencyexchange.dto.CurrencyDTO;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.service.CurrencyService;
+import com.cathaybank.currencyexchange.service.ExchangeRateService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs GET /exchange-rates/latest against the loaded snapshot and response body cache across a currency rename.
+ */
+@SpringBootTest(classes = CurrencyExchangeApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:currencychangedb",
+        "scheduler.exchange-rate.enabled=false"
+})
+@AutoConfigureMockMvc
+public class LatestExchangeRateCurrencyChangeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Test
+    void getLatestExchangeRate_AfterCurrencyRename_ServesTheNewCodeAndName() throws Exception {
+        // Arrange
+        exchangeRateService.createExchangeRate(ExchangeRateDTO.builder()
+                .baseCurrencyCode("USD")
+                .quoteCurrencyCode("SGD")
+                .rate(new BigDecimal("1.35"))
+                .date(LocalDateTime.of(2099, 1, 1, 12, 0))
+                .build());
+        mockMvc.perform(get("/exchange-rates/latest").param("baseCode", "USD").param("quoteCode", "SGD"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.quoteCurrencyName").value("Singapore Dollar"));
+        CurrencyDTO sgd = currencyService.getCurrencyByCode("SGD");
+
+        // Act
+        currencyService.updateCurrency(sgd.getId(), new CurrencyDTO(sgd.getId(), "SGX", "Singapore Dollar (new)"));
+
+        // Assert
+        mockMvc.perform(get("/exchange-rates/latest").param("baseCode", "USD").param("quoteCode", "SGX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.quoteCurrencyCode").value("SGX"))
+                .andExpect(jsonPath("$.data.quoteCurrencyName").value("Singapore Dollar (new)"))
+                .andExpect(jsonPath("$.data.rate").value(1.35));
+        mockMvc.perform(get("/exchange-rates/latest").param("baseCode", "USD").param("quoteCode", "SGD"))
+                .andExpect(status().isNotFound());
+    }
+}
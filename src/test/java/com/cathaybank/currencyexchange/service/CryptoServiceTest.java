@@ -0,0 +1,101 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.exception.ApiException;
+import com.cathaybank.currencyexchange.service.impl.CryptoServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CryptoServiceTest {
+
+    private static final String KEY = "YourSecretKey123";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"GCM", "CBC"})
+    void encrypt_RoundTripsWithAFreshIvPerMessage(String mode) {
+        // Arrange
+        CryptoService cryptoService = new CryptoServiceImpl(KEY, mode);
+
+        // Act
+        String first = cryptoService.encrypt("USD/EUR 0.912345");
+        String second = cryptoService.encrypt("USD/EUR 0.912345");
+
+        // Assert
+        assertNotEquals(first, second);
+        assertEquals("USD/EUR 0.912345", cryptoService.decrypt(first));
+        assertEquals("USD/EUR 0.912345", cryptoService.decrypt(second));
+    }
+
+    @Test
+    void decrypt_TamperedGcmMessage_ThrowsApiException() {
+        // Arrange
+        CryptoService cryptoService = new CryptoServiceImpl(KEY, "GCM");
+        byte[] message = Base64.getDecoder().decode(cryptoService.encrypt("USD/EUR 0.912345"));
+        message[message.length - 1] ^= 1;
+
+        // Act & Assert
+        ApiException exception = assertThrows(ApiException.class,
+                () -> cryptoService.decrypt(Base64.getEncoder().encodeToString(message)));
+        assertEquals("DECRYPTION_ERROR", exception.getErrorCode());
+    }
+
+    @Test
+    void decrypt_MessageShorterThanIv_ThrowsApiException() {
+        CryptoService cryptoService = new CryptoServiceImpl(KEY, "GCM");
+
+        assertThrows(ApiException.class, () -> cryptoService.decrypt("AAAA"));
+    }
+
+    @Test
+    void constructor_InvalidKeyLength_FailsAtStartup() {
+        assertThrows(IllegalStateException.class, () -> new CryptoServiceImpl("short", "GCM"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"GCM", "CBC"})
+    void streams_RoundTripLargePayload(String mode) throws Exception {
+        // Arrange
+        CryptoService cryptoService = new CryptoServiceImpl(KEY, mode);
+        byte[] export = "2023/01/01 USD EUR 0.912345\n".repeat(50_000).getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        try (OutputStream out = cryptoService.encryptingStream(encrypted)) {
+            for (int offset = 0; offset < export.length; offset += 8192) {
+                out.write(export, offset, Math.min(8192, export.length - offset));
+            }
+        }
+        byte[] decrypted;
+        try (InputStream in = cryptoService.decryptingStream(new ByteArrayInputStream(encrypted.toByteArray()))) {
+            decrypted = in.readAllBytes();
+        }
+
+        // Assert
+        assertArrayEquals(export, decrypted);
+    }
+
+    @Test
+    void streams_AreCompatibleWithStringApi() throws Exception {
+        // Arrange
+        CryptoService cryptoService = new CryptoServiceImpl(KEY, "GCM");
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+
+        // Act
+        try (OutputStream out = cryptoService.encryptingStream(encrypted)) {
+            out.write("USD/EUR 0.912345".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Assert
+        assertEquals("USD/EUR 0.912345",
+                cryptoService.decrypt(Base64.getEncoder().encodeToString(encrypted.toByteArray())));
+    }
+}
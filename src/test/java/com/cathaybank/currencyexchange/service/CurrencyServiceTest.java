@@ -1,7 +1,9 @@
 package com.cathaybank.currencyexchange.service;
 
+import com.cathaybank.currencyexchange.cache.CurrencyCache;
 import com.cathaybank.currencyexchange.dto.CurrencyDTO;
 import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.event.CurrenciesChangedEvent;
 import com.cathaybank.currencyexchange.exception.ResourceNotFoundException;
 import com.cathaybank.currencyexchange.repository.CurrencyRepository;
 import com.cathaybank.currencyexchange.service.impl.CurrencyServiceImpl;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -27,6 +30,12 @@ public class CurrencyServiceTest {
     @Mock
     private CurrencyRepository currencyRepository;
 
+    @Mock
+    private CurrencyCache currencyCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CurrencyServiceImpl currencyService;
 
@@ -58,7 +67,7 @@ public class CurrencyServiceTest {
     @Test
     void getAllCurrencies_ReturnsAllCurrencies() {
         // Arrange
-        when(currencyRepository.findAllByOrderByCodeAsc()).thenReturn(Arrays.asList(eurCurrency, usdCurrency));
+        when(currencyCache.findAll()).thenReturn(Arrays.asList(eurCurrency, usdCurrency));
 
         // Act
         List<CurrencyDTO> result = currencyService.getAllCurrencies();
@@ -68,13 +77,14 @@ public class CurrencyServiceTest {
         assertEquals(2, result.size());
         assertEquals("EUR", result.get(0).getCode());
         assertEquals("USD", result.get(1).getCode());
-        verify(currencyRepository).findAllByOrderByCodeAsc();
+        verify(currencyCache).findAll();
+        verifyNoInteractions(currencyRepository);
     }
 
     @Test
     void getCurrencyById_WhenCurrencyExists_ReturnsCurrency() {
         // Arrange
-        when(currencyRepository.findById("1")).thenReturn(Optional.of(usdCurrency));
+        when(currencyCache.findById("1")).thenReturn(Optional.of(usdCurrency));
 
         // Act
         CurrencyDTO result = currencyService.getCurrencyById("1");
@@ -83,23 +93,24 @@ public class CurrencyServiceTest {
         assertNotNull(result);
         assertEquals("USD", result.getCode());
         assertEquals("US Dollar", result.getName());
-        verify(currencyRepository).findById("1");
+        verify(currencyCache).findById("1");
+        verifyNoInteractions(currencyRepository);
     }
 
     @Test
     void getCurrencyById_WhenCurrencyDoesNotExist_ThrowsException() {
         // Arrange
-        when(currencyRepository.findById("3")).thenReturn(Optional.empty());
+        when(currencyCache.findById("3")).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> currencyService.getCurrencyById("3"));
-        verify(currencyRepository).findById("3");
+        verify(currencyCache).findById("3");
     }
 
     @Test
     void getCurrencyByCode_WhenCurrencyExists_ReturnsCurrency() {
         // Arrange
-        when(currencyRepository.findByCode("USD")).thenReturn(Optional.of(usdCurrency));
+        when(currencyCache.findByCode("USD")).thenReturn(Optional.of(usdCurrency));
 
         // Act
         CurrencyDTO result = currencyService.getCurrencyByCode("USD");
@@ -108,17 +119,18 @@ public class CurrencyServiceTest {
         assertNotNull(result);
         assertEquals("USD", result.getCode());
         assertEquals("US Dollar", result.getName());
-        verify(currencyRepository).findByCode("USD");
+        verify(currencyCache).findByCode("USD");
+        verifyNoInteractions(currencyRepository);
     }
 
     @Test
     void getCurrencyByCode_WhenCurrencyDoesNotExist_ThrowsException() {
         // Arrange
-        when(currencyRepository.findByCode("JPY")).thenReturn(Optional.empty());
+        when(currencyCache.findByCode("JPY")).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> currencyService.getCurrencyByCode("JPY"));
-        verify(currencyRepository).findByCode("JPY");
+        verify(currencyCache).findByCode("JPY");
     }
 
     @Test
@@ -141,6 +153,7 @@ public class CurrencyServiceTest {
         assertEquals("Japanese Yen", result.getName());
         verify(currencyRepository).existsByCode("JPY");
         verify(currencyRepository).save(any(Currency.class));
+        verify(eventPublisher).publishEvent(any(CurrenciesChangedEvent.class));
     }
 
     @Test
@@ -152,6 +165,7 @@ public class CurrencyServiceTest {
         assertThrows(IllegalArgumentException.class, () -> currencyService.createCurrency(currencyDTO));
         verify(currencyRepository).existsByCode("JPY");
         verify(currencyRepository, never()).save(any(Currency.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -173,6 +187,7 @@ public class CurrencyServiceTest {
         assertEquals("Updated US Dollar", result.getName());
         verify(currencyRepository).findById("1");
         verify(currencyRepository).save(any(Currency.class));
+        verify(eventPublisher).publishEvent(any(CurrenciesChangedEvent.class));
     }
 
     @Test
@@ -199,6 +214,7 @@ public class CurrencyServiceTest {
         // Assert
         verify(currencyRepository).existsById("1");
         verify(currencyRepository).deleteById("1");
+        verify(eventPublisher).publishEvent(any(CurrenciesChangedEvent.class));
     }
 
     @Test
@@ -0,0 +1,136 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.CurrencyExchangeApplication;
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import com.cathaybank.currencyexchange.entity.ExchangeRate;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import com.cathaybank.currencyexchange.repository.SyncWatermarkRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ingests ten years of daily history for every synced pair into the embedded H2 database and reports throughput.
+ */
+@SpringBootTest(classes = CurrencyExchangeApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:backfilldb",
+        "scheduler.exchange-rate.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO"
+})
+@Slf4j
+public class ExchangeRateBackfillTest {
+
+    // The 12 major cross pairs plus one USD leg for each of the six other seeded currencies
+    private static final int PAIRS = 18;
+    private static final LocalDate BACKFILL_END = LocalDate.of(2023, 12, 31);
+    private static final LocalDate BACKFILL_START = BACKFILL_END.minusYears(10).plusDays(1);
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private SyncWatermarkRepository syncWatermarkRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private OandaApiService oandaApiService;
+
+    private Statistics statistics;
+    private final AtomicInteger callsInTransaction = new AtomicInteger();
+    private int[] days;
+    private long[] scaledRates;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateRepository.deleteAllInBatch();
+        syncWatermarkRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Build the upstream payload once so fixture generation is not part of the measured time
+        days = BACKFILL_START.datesUntil(BACKFILL_END.plusDays(1)).mapToInt(date -> (int) date.toEpochDay()).toArray();
+        scaledRates = new long[days.length];
+        for (int i = 0; i < days.length; i++) {
+            scaledRates[i] = 1_000_000L + (days[i] % 1000) * 100L;
+        }
+
+        when(oandaApiService.fetchRates(anyString(), anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> {
+                    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                        callsInTransaction.incrementAndGet();
+                    }
+                    return Mono.just(history(invocation.getArgument(0), invocation.getArgument(1)));
+                });
+    }
+
+    @Test
+    void syncExchangeRates_TenYearBackfill_IsBatchedAndIdempotent() {
+        long days = BACKFILL_START.datesUntil(BACKFILL_END.plusDays(1)).count();
+
+        // Act
+        long start = System.nanoTime();
+        exchangeRateService.syncExchangeRates(SyncProgressListener.NONE);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        // Assert
+        long rows = exchangeRateRepository.count();
+        assertEquals(PAIRS * days, rows);
+        log.info("10-year backfill: {} rows in {} s ({} rows/s)",
+                rows, String.format("%.2f", seconds), String.format("%.0f", rows / seconds));
+        // Rows go through batched MERGE statements rather than one JPA insert per entity
+        assertEquals(0, statistics.getEntityStatistics(ExchangeRate.class.getName()).getInsertCount());
+        // Upstream calls happen outside any transaction and each pair commits on its own
+        assertEquals(0, callsInTransaction.get());
+        Timer connectionHold = meterRegistry.get("exchange.rate.sync.connection.hold").timer();
+        assertEquals(PAIRS, connectionHold.count());
+        log.info("Connection hold per pair: mean {} ms, max {} ms",
+                String.format("%.1f", connectionHold.mean(TimeUnit.MILLISECONDS)),
+                String.format("%.1f", connectionHold.max(TimeUnit.MILLISECONDS)));
+
+        // Re-running the same window must not insert duplicates
+        start = System.nanoTime();
+        exchangeRateService.syncExchangeRates(SyncProgressListener.NONE);
+        seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        assertEquals(rows, exchangeRateRepository.count());
+        log.info("10-year re-sync: {} rows checked in {} s ({} rows/s)",
+                rows, String.format("%.2f", seconds), String.format("%.0f", rows / seconds));
+    }
+
+    private RateBatch history(String baseCode, String quoteCode) {
+        RateBatch.Builder batch = RateBatch.builder(baseCode, quoteCode, "OANDA", days.length);
+        for (int i = 0; i < days.length; i++) {
+            batch.add(days[i], scaledRates[i]);
+        }
+        return batch.build();
+    }
+}
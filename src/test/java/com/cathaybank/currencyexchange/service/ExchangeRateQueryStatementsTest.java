@@ -0,0 +1,182 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.CurrencyExchangeApplication;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.dto.ExchangeRatePageDTO;
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.entity.ExchangeRate;
+import com.cathaybank.currencyexchange.repository.CurrencyRepository;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepositoryCustom.PairIds;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies with Hibernate statistics that rate reads cost one SQL statement however many rows they return. The rate
+ * history store is off, so pages are read from the database, and the fixture writes behind its back anyway.
+ */
+@SpringBootTest(classes = CurrencyExchangeApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statementsdb",
+        "rate-history.enabled=false",
+        "scheduler.exchange-rate.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class ExchangeRateQueryStatementsTest {
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+    private static final LocalDate END = LocalDate.of(2023, 12, 31);
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateRepository.deleteAllInBatch();
+
+        Currency usd = currencyRepository.findByCode("USD").orElseThrow();
+        Currency eur = currencyRepository.findByCode("EUR").orElseThrow();
+        List<ExchangeRate> rates = new ArrayList<>();
+        START.datesUntil(END.plusDays(1)).forEach(date -> {
+            rates.add(rate(usd, eur, date));
+            rates.add(rate(eur, usd, date));
+        });
+        exchangeRateRepository.insertMissing(rates);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getExchangeRates_OneYearRange_UsesOneStatementPerPage() {
+        List<ExchangeRateDTO> result = new ArrayList<>();
+        String pageToken = null;
+        int pages = 0;
+        do {
+            ExchangeRatePageDTO page = exchangeRateService.getExchangeRates("USD", "EUR", START, END, pageToken, 100);
+            result.addAll(page.getRates());
+            pageToken = page.getNextPageToken();
+            pages++;
+        } while (pageToken != null);
+
+        assertEquals(4, pages);
+        assertEquals(365, result.size());
+        assertEquals(START.atTime(12, 0), result.get(0).getDate());
+        assertEquals(START.plusDays(100).atTime(12, 0), result.get(100).getDate());
+        assertEquals(END.atTime(12, 0), result.get(364).getDate());
+        assertEquals("US Dollar", result.get(0).getBaseCurrencyName());
+        assertEquals("Euro", result.get(364).getQuoteCurrencyName());
+        assertEquals(pages, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getExchangeRates_RangeEndingOnAPageBoundary_HasNoEmptyLastPage() {
+        ExchangeRatePageDTO first = exchangeRateService.getExchangeRates("USD", "EUR", START, START.plusDays(3), null, 2);
+        ExchangeRatePageDTO second = exchangeRateService.getExchangeRates("USD", "EUR", START, START.plusDays(3),
+                first.getNextPageToken(), 2);
+
+        assertEquals(2, first.getRates().size());
+        assertNotNull(first.getNextPageToken());
+        assertEquals(2, second.getRates().size());
+        assertNull(second.getNextPageToken());
+    }
+
+    @Test
+    void streamExchangeRates_OneYearRange_UsesOneStatementInDateOrder() {
+        List<ExchangeRateDTO> received = new ArrayList<>();
+
+        long count = exchangeRateService.streamExchangeRates("USD", "EUR", START, END, received::add);
+
+        assertEquals(365, count);
+        assertEquals(365, received.size());
+        assertEquals(START.atTime(12, 0), received.get(0).getDate());
+        assertEquals(END.atTime(12, 0), received.get(364).getDate());
+        assertEquals("US Dollar", received.get(0).getBaseCurrencyName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findLatest_UsesOneStatement() {
+        ExchangeRateDTO latest = exchangeRateRepository
+                .findLatestByBaseCurrencyCodeAndQuoteCurrencyCode("EUR", "USD").orElseThrow();
+
+        assertEquals(END.atTime(12, 0), latest.getDate());
+        assertEquals("Euro", latest.getBaseCurrencyName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findLatestForAllPairs_UsesOneStatement() {
+        List<ExchangeRateDTO> latest = exchangeRateRepository.findLatestForAllPairs();
+
+        assertEquals(2, latest.size());
+        assertTrue(latest.stream().allMatch(rate -> rate.getQuoteCurrencyName() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findLatestForPairs_UsesOneStatement() {
+        Currency usd = currencyRepository.findByCode("USD").orElseThrow();
+        Currency eur = currencyRepository.findByCode("EUR").orElseThrow();
+        Currency jpy = currencyRepository.findByCode("JPY").orElseThrow();
+        statistics.clear();
+
+        List<ExchangeRateDTO> latest = exchangeRateRepository.findLatestForPairs(List.of(
+                new PairIds(usd.getId(), eur.getId()), new PairIds(usd.getId(), jpy.getId())));
+
+        assertEquals(1, latest.size());
+        assertEquals("USD", latest.get(0).getBaseCurrencyCode());
+        assertEquals(END.atTime(12, 0), latest.get(0).getDate());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void insertMissing_SkipsStoredAndRepeatedDatesAndReturnsOnlyNewRates() {
+        Currency usd = currencyRepository.findByCode("USD").orElseThrow();
+        Currency eur = currencyRepository.findByCode("EUR").orElseThrow();
+        ExchangeRate stored = rate(usd, eur, END);
+        ExchangeRate added = rate(usd, eur, END.plusDays(1));
+        ExchangeRate repeated = rate(usd, eur, END.plusDays(1));
+
+        List<ExchangeRate> inserted = exchangeRateRepository.insertMissing(List.of(stored, added, repeated));
+
+        assertEquals(1, inserted.size());
+        assertSame(added, inserted.get(0));
+        assertTrue(exchangeRateRepository.existsById(added.getId()));
+        assertFalse(exchangeRateRepository.existsById(stored.getId()));
+        assertFalse(exchangeRateRepository.existsById(repeated.getId()));
+        assertEquals(2 * 365 + 1, exchangeRateRepository.count());
+    }
+
+    private ExchangeRate rate(Currency base, Currency quote, LocalDate date) {
+        return ExchangeRate.builder()
+                .baseCurrency(base)
+                .quoteCurrency(quote)
+                .rate(BigDecimal.ONE)
+                .date(date.atTime(12, 0))
+                .source("TEST")
+                .build();
+    }
+}
@@ -0,0 +1,519 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.cache.CurrencyCache;
+import com.cathaybank.currencyexchange.cache.LatestRateSnapshot;
+import com.cathaybank.currencyexchange.cache.RateHistoryStore;
+import com.cathaybank.currencyexchange.dto.CurrencyPair;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.dto.ExchangeRatePageDTO;
+import com.cathaybank.currencyexchange.dto.LatestRatesBatchDTO;
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import com.cathaybank.currencyexchange.entity.Currency;
+import com.cathaybank.currencyexchange.entity.ExchangeRate;
+import com.cathaybank.currencyexchange.entity.SyncWatermark;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import com.cathaybank.currencyexchange.exception.ApiException;
+import com.cathaybank.currencyexchange.exception.ResourceNotFoundException;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepository;
+import com.cathaybank.currencyexchange.repository.ExchangeRateRepositoryCustom.PairIds;
+import com.cathaybank.currencyexchange.repository.SyncWatermarkRepository;
+import com.cathaybank.currencyexchange.service.impl.ExchangeRateServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExchangeRateServiceTest {
+
+    @Mock
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Mock
+    private CurrencyCache currencyCache;
+
+    @Mock
+    private RateProvider rateProvider;
+
+    @Mock
+    private LatestRateSnapshot latestRateSnapshot;
+
+    @Mock
+    private RateHistoryStore rateHistoryStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SyncWatermarkRepository syncWatermarkRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ExchangeRateServiceImpl exchangeRateService;
+
+    private Currency usdCurrency;
+    private Currency eurCurrency;
+    private ExchangeRateDTO usdEurRate;
+
+    @BeforeEach
+    void setUp() {
+        usdCurrency = new Currency();
+        usdCurrency.setId("1");
+        usdCurrency.setCode("USD");
+        usdCurrency.setName("US Dollar");
+
+        eurCurrency = new Currency();
+        eurCurrency.setId("2");
+        eurCurrency.setCode("EUR");
+        eurCurrency.setName("Euro");
+
+        usdEurRate = ExchangeRateDTO.builder()
+                .baseCurrencyCode("USD")
+                .quoteCurrencyCode("EUR")
+                .rate(new BigDecimal("0.92"))
+                .date(LocalDateTime.of(2024, 1, 2, 12, 0))
+                .build();
+
+        ReflectionTestUtils.setField(exchangeRateService, "maxConcurrency", 12);
+        ReflectionTestUtils.setField(exchangeRateService, "initialLookbackDays", 1);
+        ReflectionTestUtils.setField(exchangeRateService, "maxWindowDays", 180);
+        ReflectionTestUtils.setField(exchangeRateService, "defaultPageSize", 500);
+        ReflectionTestUtils.setField(exchangeRateService, "maxPageSize", 1000);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void getExchangeRates_FullPage_ContinuesAfterItsLastDate() {
+        // Arrange
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        when(currencyCache.findByCode("USD")).thenReturn(Optional.of(usdCurrency));
+        when(currencyCache.findByCode("EUR")).thenReturn(Optional.of(eurCurrency));
+        when(exchangeRateRepository.findPage(eq(usdCurrency), eq(eurCurrency), eq(start.atStartOfDay()), any(),
+                any(LocalDateTime.class), eq(3)))
+                .thenAnswer(invocation -> new ArrayList<>(List.of(
+                        pageRate(start), pageRate(start.plusDays(1)), pageRate(start.plusDays(2)))));
+
+        // Act
+        ExchangeRatePageDTO first = exchangeRateService.getExchangeRates("USD", "EUR", start, start.plusDays(9), null, 2);
+        exchangeRateService.getExchangeRates("USD", "EUR", start, start.plusDays(9), first.getNextPageToken(), 2);
+
+        // Assert: the extra row only signals the next page, which starts after the second date
+        assertEquals(2, first.getRates().size());
+        assertNotNull(first.getNextPageToken());
+        verify(exchangeRateRepository).findPage(usdCurrency, eurCurrency, start.atStartOfDay(), null,
+                start.plusDays(9).atTime(23, 59, 59), 3);
+        verify(exchangeRateRepository).findPage(usdCurrency, eurCurrency, start.atStartOfDay(),
+                start.plusDays(1).atTime(12, 0), start.plusDays(9).atTime(23, 59, 59), 3);
+    }
+
+    @Test
+    void getExchangeRates_PairInHistoryStore_DoesNotQueryRepository() {
+        // Arrange
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        when(currencyCache.findByCode("USD")).thenReturn(Optional.of(usdCurrency));
+        when(currencyCache.findByCode("EUR")).thenReturn(Optional.of(eurCurrency));
+        when(rateHistoryStore.findPage(usdCurrency, eurCurrency, start.atStartOfDay(), null,
+                start.plusDays(9).atTime(23, 59, 59), 501))
+                .thenReturn(Optional.of(new ArrayList<>(List.of(pageRate(start), pageRate(start.plusDays(1))))));
+
+        // Act
+        ExchangeRatePageDTO page = exchangeRateService.getExchangeRates("USD", "EUR", start, start.plusDays(9),
+                null, null);
+
+        // Assert
+        assertEquals(2, page.getRates().size());
+        assertNull(page.getNextPageToken());
+        verifyNoInteractions(exchangeRateRepository);
+    }
+
+    @Test
+    void getExchangeRates_PageSizeAboveMaximum_IsCapped() {
+        // Arrange
+        when(currencyCache.findByCode("USD")).thenReturn(Optional.of(usdCurrency));
+        when(currencyCache.findByCode("EUR")).thenReturn(Optional.of(eurCurrency));
+        when(exchangeRateRepository.findPage(any(), any(), any(), any(), any(), anyInt())).thenReturn(new ArrayList<>());
+
+        // Act
+        exchangeRateService.getExchangeRates("USD", "EUR", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1),
+                null, 1_000_000);
+
+        // Assert
+        verify(exchangeRateRepository).findPage(any(), any(), any(), any(), any(), eq(1001));
+    }
+
+    @Test
+    void getExchangeRates_InvalidPageToken_ThrowsException() {
+        assertThrows(ApiException.class, () -> exchangeRateService.getExchangeRates("USD", "EUR",
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), "not-a-token", null));
+        assertThrows(IllegalArgumentException.class, () -> exchangeRateService.getExchangeRates("USD", "EUR",
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null, 0));
+        verifyNoInteractions(exchangeRateRepository);
+    }
+
+    @Test
+    void getLatestExchangeRate_WhenSnapshotLoaded_DoesNotQueryRepository() {
+        // Arrange
+        when(latestRateSnapshot.isLoaded()).thenReturn(true);
+        when(latestRateSnapshot.find("USD", "EUR")).thenReturn(Optional.of(usdEurRate));
+
+        // Act
+        ExchangeRateDTO result = exchangeRateService.getLatestExchangeRate("USD", "EUR");
+
+        // Assert
+        assertSame(usdEurRate, result);
+        verifyNoInteractions(exchangeRateRepository);
+    }
+
+    @Test
+    void getLatestExchangeRate_WhenSnapshotMisses_ThrowsException() {
+        // Arrange
+        when(latestRateSnapshot.isLoaded()).thenReturn(true);
+        when(latestRateSnapshot.find("USD", "TWD")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> exchangeRateService.getLatestExchangeRate("USD", "TWD"));
+        verifyNoInteractions(exchangeRateRepository);
+    }
+
+    @Test
+    void getLatestExchangeRate_WhenSnapshotNotLoaded_FallsBackToRepository() {
+        // Arrange
+        when(latestRateSnapshot.isLoaded()).thenReturn(false);
+        when(exchangeRateRepository.findLatestByBaseCurrencyCodeAndQuoteCurrencyCode("USD", "EUR"))
+                .thenReturn(Optional.of(usdEurRate));
+
+        // Act
+        ExchangeRateDTO result = exchangeRateService.getLatestExchangeRate("USD", "EUR");
+
+        // Assert
+        assertSame(usdEurRate, result);
+    }
+
+    @Test
+    void getLatestExchangeRates_WhenSnapshotLoaded_ReportsMissesInRequestOrder() {
+        // Arrange
+        when(latestRateSnapshot.isLoaded()).thenReturn(true);
+        when(latestRateSnapshot.find("USD", "EUR")).thenReturn(Optional.of(usdEurRate));
+        when(latestRateSnapshot.find("USD", "XXX")).thenReturn(Optional.empty());
+
+        // Act
+        LatestRatesBatchDTO result = exchangeRateService.getLatestExchangeRates(List.of(
+                new CurrencyPair("USD", "XXX"), new CurrencyPair("USD", "EUR")));
+
+        // Assert
+        assertEquals(List.of(usdEurRate), result.getRates());
+        assertEquals(List.of(new CurrencyPair("USD", "XXX")), result.getMissing());
+        verifyNoInteractions(exchangeRateRepository);
+    }
+
+    @Test
+    void getLatestExchangeRates_WhenSnapshotNotLoaded_UsesOneRepositoryQuery() {
+        // Arrange
+        when(latestRateSnapshot.isLoaded()).thenReturn(false);
+        Currency jpy = Currency.builder().id("3").code("JPY").name("Japanese Yen").build();
+        when(currencyCache.findByCode("USD")).thenReturn(Optional.of(usdCurrency));
+        when(currencyCache.findByCode("EUR")).thenReturn(Optional.of(eurCurrency));
+        when(currencyCache.findByCode("JPY")).thenReturn(Optional.of(jpy));
+        when(exchangeRateRepository.findLatestForPairs(Set.of(new PairIds("1", "2"), new PairIds("2", "3"))))
+                .thenReturn(List.of(usdEurRate));
+
+        // Act
+        LatestRatesBatchDTO result = exchangeRateService.getLatestExchangeRates(List.of(
+                new CurrencyPair("USD", "EUR"), new CurrencyPair("EUR", "JPY"), new CurrencyPair("USD", "EUR")));
+
+        // Assert
+        assertEquals(List.of(usdEurRate, usdEurRate), result.getRates());
+        assertEquals(List.of(new CurrencyPair("EUR", "JPY")), result.getMissing());
+        verify(exchangeRateRepository, times(1)).findLatestForPairs(anyCollection());
+    }
+
+    @Test
+    void createExchangeRate_PublishesUpdatedEvent() {
+        // Arrange
+        when(currencyCache.findByCode("USD")).thenReturn(Optional.of(usdCurrency));
+        when(currencyCache.findByCode("EUR")).thenReturn(Optional.of(eurCurrency));
+        when(exchangeRateRepository.saveAndFlush(any(ExchangeRate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ExchangeRateDTO result = exchangeRateService.createExchangeRate(usdEurRate);
+
+        // Assert
+        ArgumentCaptor<ExchangeRatesUpdatedEvent> captor = ArgumentCaptor.forClass(ExchangeRatesUpdatedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(1, captor.getValue().getExchangeRates().size());
+        assertSame(result, captor.getValue().getExchangeRates().get(0));
+        assertEquals("MANUAL", result.getSource());
+    }
+
+    @Test
+    void createExchangeRate_WhenUniqueIndexRejectsDuplicate_ThrowsException() {
+        // Arrange
+        when(currencyCache.findByCode("USD")).thenReturn(Optional.of(usdCurrency));
+        when(currencyCache.findByCode("EUR")).thenReturn(Optional.of(eurCurrency));
+        when(exchangeRateRepository.saveAndFlush(any(ExchangeRate.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_exchange_rate_pair_date"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> exchangeRateService.createExchangeRate(usdEurRate));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void syncExchangeRates_FetchesPairsConcurrentlyAndCommitsEachPairSeparately() {
+        // Arrange
+        stubMajorCurrencies();
+        when(rateProvider.fetchRates(anyString(), anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> Mono.just(rates(invocation.getArgument(0), invocation.getArgument(1)))
+                        .delayElement(Duration.ofMillis(300)));
+        when(exchangeRateRepository.insertMissing(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        long start = System.nanoTime();
+        exchangeRateService.syncExchangeRates(SyncProgressListener.NONE);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert: 12 pairs at 300ms each would take 3.6s if fetched one after another
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, "sync took " + elapsed);
+        verify(rateProvider, times(12)).fetchRates(anyString(), anyString(), any(), any());
+        verify(transactionTemplate, times(12)).execute(any());
+        verify(exchangeRateRepository, times(12)).insertMissing(anyList());
+        ArgumentCaptor<ExchangeRatesUpdatedEvent> captor = ArgumentCaptor.forClass(ExchangeRatesUpdatedEvent.class);
+        verify(eventPublisher, times(12)).publishEvent(captor.capture());
+        assertEquals(12, captor.getAllValues().stream().mapToInt(event -> event.getExchangeRates().size()).sum());
+        assertEquals(12, meterRegistry.get("exchange.rate.sync.connection.hold").timer().count());
+    }
+
+    @Test
+    void syncExchangeRates_WhenOnePairFails_SavesTheOthers() {
+        // Arrange
+        stubMajorCurrencies();
+        when(rateProvider.fetchRates(anyString(), anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> "USD".equals(invocation.getArgument(0)) && "EUR".equals(invocation.getArgument(1))
+                        ? Mono.error(new IllegalStateException("upstream failure"))
+                        : Mono.just(rates(invocation.getArgument(0), invocation.getArgument(1))));
+        when(exchangeRateRepository.insertMissing(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        exchangeRateService.syncExchangeRates(SyncProgressListener.NONE);
+
+        // Assert: the failed pair never opens a transaction
+        verify(transactionTemplate, times(11)).execute(any());
+        verify(eventPublisher, times(11)).publishEvent(any(ExchangeRatesUpdatedEvent.class));
+    }
+
+    @Test
+    void syncExchangeRates_WhenOnePairFailsToSave_CommitsTheOthers() {
+        // Arrange
+        stubMajorCurrencies();
+        when(rateProvider.fetchRates(anyString(), anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> Mono.just(rates(invocation.getArgument(0), invocation.getArgument(1))));
+        when(exchangeRateRepository.insertMissing(anyList())).thenAnswer(invocation -> {
+            List<ExchangeRate> rates = invocation.getArgument(0);
+            if ("GBP".equals(rates.get(0).getBaseCurrency().getCode())
+                    && "JPY".equals(rates.get(0).getQuoteCurrency().getCode())) {
+                throw new DataIntegrityViolationException("constraint violation");
+            }
+            return rates;
+        });
+        SyncProgressListener listener = mock(SyncProgressListener.class);
+
+        // Act
+        exchangeRateService.syncExchangeRates(listener);
+
+        // Assert
+        verify(eventPublisher, times(11)).publishEvent(any(ExchangeRatesUpdatedEvent.class));
+        verify(listener).onPairFetched(new CurrencyPair("GBP", "JPY"), 1, true);
+        verify(listener, times(11)).onRatesSaved(1);
+    }
+
+    @Test
+    void syncExchangeRates_FetchesOtherCurrenciesOnlyAgainstUsd() {
+        // Arrange
+        stubMajorCurrencies();
+        Currency twd = new Currency();
+        twd.setId("TWD");
+        twd.setCode("TWD");
+        twd.setName("New Taiwan Dollar");
+        when(currencyCache.findAll()).thenReturn(List.of(eurCurrency, twd, usdCurrency));
+        when(currencyCache.findByCode("TWD")).thenReturn(Optional.of(twd));
+        when(rateProvider.fetchRates(anyString(), anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> Mono.just(rates(invocation.getArgument(0), invocation.getArgument(1))));
+        when(exchangeRateRepository.insertMissing(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        exchangeRateService.syncExchangeRates(SyncProgressListener.NONE);
+
+        // Assert: the 12 major pairs plus a single USD leg for TWD
+        verify(rateProvider, times(13)).fetchRates(anyString(), anyString(), any(), any());
+        verify(rateProvider).fetchRates(eq("USD"), eq("TWD"), any(), any());
+        verify(rateProvider, never()).fetchRates(eq("EUR"), eq("TWD"), any(), any());
+    }
+
+    @Test
+    void syncExchangeRates_AllPairsUpToDate_MakesNoUpstreamCalls() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(syncWatermarkRepository.findAllWithCurrencies()).thenReturn(majorWatermarks(today));
+
+        // Act
+        exchangeRateService.syncExchangeRates(SyncProgressListener.NONE);
+
+        // Assert
+        verifyNoInteractions(rateProvider);
+        verify(exchangeRateRepository, never()).insertMissing(anyList());
+        verify(syncWatermarkRepository, never()).save(any());
+    }
+
+    @Test
+    void syncExchangeRates_LongGap_FetchesOnlyMissingDaysInWindows() {
+        // Arrange
+        stubCurrencies("USD", "EUR");
+        LocalDate today = LocalDate.now();
+        List<SyncWatermark> watermarks = majorWatermarks(today);
+        SyncWatermark usdEur = watermarks.get(0);
+        usdEur.setSyncedThrough(today.minusDays(400));
+        when(syncWatermarkRepository.findAllWithCurrencies()).thenReturn(watermarks);
+        when(rateProvider.fetchRates(anyString(), anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> Mono.just(rates(invocation.getArgument(0), invocation.getArgument(1))));
+        when(exchangeRateRepository.insertMissing(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        exchangeRateService.syncExchangeRates(SyncProgressListener.NONE);
+
+        // Assert: 400 missing days in windows of at most 180, oldest first, and nothing for the other pairs
+        InOrder inOrder = inOrder(rateProvider);
+        inOrder.verify(rateProvider).fetchRates("USD", "EUR", today.minusDays(399), today.minusDays(220));
+        inOrder.verify(rateProvider).fetchRates("USD", "EUR", today.minusDays(219), today.minusDays(40));
+        inOrder.verify(rateProvider).fetchRates("USD", "EUR", today.minusDays(39), today);
+        verifyNoMoreInteractions(rateProvider);
+        // Today's rate has not arrived, so the pair is complete through yesterday
+        verify(syncWatermarkRepository).save(usdEur);
+        assertEquals(today.minusDays(1), usdEur.getSyncedThrough());
+    }
+
+    @Test
+    void syncExchangeRates_FailedWindow_StopsPairAndKeepsWatermarkBeforeTheHole() {
+        // Arrange
+        stubCurrencies("USD", "EUR");
+        LocalDate today = LocalDate.now();
+        List<SyncWatermark> watermarks = majorWatermarks(today);
+        SyncWatermark usdEur = watermarks.get(0);
+        usdEur.setSyncedThrough(today.minusDays(400));
+        when(syncWatermarkRepository.findAllWithCurrencies()).thenReturn(watermarks);
+        when(rateProvider.fetchRates(anyString(), anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> today.minusDays(219).equals(invocation.getArgument(2))
+                        ? Mono.error(new IllegalStateException("upstream failure"))
+                        : Mono.just(rates(invocation.getArgument(0), invocation.getArgument(1))));
+        when(exchangeRateRepository.insertMissing(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        exchangeRateService.syncExchangeRates(SyncProgressListener.NONE);
+
+        // Assert
+        verify(rateProvider, times(2)).fetchRates(anyString(), anyString(), any(), any());
+        assertEquals(today.minusDays(220), usdEur.getSyncedThrough());
+    }
+
+    @Test
+    void syncExchangeRates_NewPair_CreatesWatermark() {
+        // Arrange
+        stubCurrencies("USD", "EUR");
+        LocalDate today = LocalDate.now();
+        List<SyncWatermark> watermarks = new ArrayList<>(majorWatermarks(today));
+        watermarks.remove(0);
+        when(syncWatermarkRepository.findAllWithCurrencies()).thenReturn(watermarks);
+        when(rateProvider.fetchRates(anyString(), anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenAnswer(invocation -> Mono.just(rates(invocation.getArgument(0), invocation.getArgument(1))));
+        when(exchangeRateRepository.insertMissing(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        exchangeRateService.syncExchangeRates(SyncProgressListener.NONE);
+
+        // Assert: without a watermark the pair starts from the initial look-back
+        verify(rateProvider).fetchRates("USD", "EUR", today.minusDays(1), today);
+        ArgumentCaptor<SyncWatermark> captor = ArgumentCaptor.forClass(SyncWatermark.class);
+        verify(syncWatermarkRepository).save(captor.capture());
+        assertEquals("USD", captor.getValue().getBaseCurrency().getCode());
+        assertEquals(today.minusDays(1), captor.getValue().getSyncedThrough());
+    }
+
+    private List<SyncWatermark> majorWatermarks(LocalDate syncedThrough) {
+        List<SyncWatermark> watermarks = new ArrayList<>();
+        for (String baseCode : List.of("USD", "EUR", "JPY", "GBP")) {
+            for (String quoteCode : List.of("EUR", "USD", "JPY", "GBP")) {
+                if (!baseCode.equals(quoteCode)) {
+                    watermarks.add(SyncWatermark.builder()
+                            .baseCurrency(Currency.builder().id(baseCode).code(baseCode).name(baseCode).build())
+                            .quoteCurrency(Currency.builder().id(quoteCode).code(quoteCode).name(quoteCode).build())
+                            .syncedThrough(syncedThrough)
+                            .build());
+                }
+            }
+        }
+        return watermarks;
+    }
+
+    private void stubMajorCurrencies() {
+        stubCurrencies("USD", "EUR", "JPY", "GBP");
+    }
+
+    private void stubCurrencies(String... codes) {
+        for (String code : codes) {
+            Currency currency = new Currency();
+            currency.setId(code);
+            currency.setCode(code);
+            currency.setName(code);
+            when(currencyCache.findByCode(code)).thenReturn(Optional.of(currency));
+        }
+    }
+
+    private RateBatch rates(String baseCode, String quoteCode) {
+        return RateBatch.builder(baseCode, quoteCode, "OANDA", 1)
+                .add((int) LocalDate.of(2024, 1, 2).toEpochDay(), 1_234_500L)
+                .build();
+    }
+
+    private static ExchangeRateDTO pageRate(LocalDate date) {
+        return new ExchangeRateDTO("id-" + date, "USD", "US Dollar", "EUR", "Euro", BigDecimal.ONE, date.atTime(12, 0),
+                "TEST");
+    }
+}
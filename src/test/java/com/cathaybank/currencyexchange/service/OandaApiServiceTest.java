@@ -0,0 +1,257 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.config.OandaResilienceConfig;
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import com.cathaybank.currencyexchange.service.impl.OandaApiServiceImpl;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the OANDA client against a local HTTP server that injects upstream faults.
+ */
+public class OandaApiServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 2);
+    private static final String BODY = "{\"meta\":{\"base\":\"USD\",\"quote\":\"EUR\",\"data_type\":\"chart\"},"
+            + "\"data\":{\"2024-01-02\":[{\"date\":\"2024-01-02\",\"close\":\"0.92\"}]}}";
+
+    private MockWebServer server;
+    private MeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private OandaApiServiceImpl oandaApiService;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = CircuitBreaker.of("localhost", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordException(OandaResilienceConfig::isUpstreamFailure)
+                .build());
+        circuitBreaker.getEventPublisher().onStateTransition(event -> meterRegistry.counter(
+                "oanda.circuit-breaker.transitions", "to", event.getStateTransition().getToState().name()).increment());
+        oandaApiService = service(Bulkhead.of("localhost", BulkheadConfig.custom()
+                .maxConcurrentCalls(10)
+                .maxWaitDuration(Duration.ZERO)
+                .build()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void fetchRates_ServerErrorThenSuccess_Retries() {
+        // Arrange
+        respond(request -> request == 1 ? new MockResponse().setResponseCode(503) : ok());
+
+        // Act
+        RateBatch batch = oandaApiService.fetchRates("USD", "EUR", DAY, DAY).block();
+
+        // Assert
+        assertEquals(new BigDecimal("0.920000"), batch.rate(0));
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1.0, meterRegistry.get("oanda.request.retries").counter().count());
+    }
+
+    @Test
+    void fetchRates_ClientError_IsNotRetried() {
+        // Arrange
+        respond(request -> new MockResponse().setResponseCode(400));
+
+        // Act & Assert
+        assertThrows(WebClientResponseException.BadRequest.class,
+                () -> oandaApiService.fetchRates("USD", "EUR", DAY, DAY).block());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void fetchRates_ConnectionDropped_RetriesUntilAttemptsRunOut() {
+        // Arrange
+        respond(request -> new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+
+        // Act & Assert
+        assertThrows(WebClientRequestException.class, () -> oandaApiService.fetchRates("USD", "EUR", DAY, DAY).block());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    void fetchRates_UpstreamDown_OpensBreakerAndFailsFast() {
+        // Arrange
+        respond(request -> new MockResponse().setResponseCode(500));
+        ReflectionTestUtils.setField(oandaApiService, "maxAttempts", 1);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(WebClientResponseException.InternalServerError.class,
+                    () -> oandaApiService.fetchRates("USD", "EUR", DAY, DAY).block());
+        }
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(CallNotPermittedException.class,
+                () -> oandaApiService.fetchRates("USD", "EUR", DAY, DAY).block());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert: the open breaker answers without touching the upstream
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(4, server.getRequestCount());
+        assertTrue(elapsed.compareTo(Duration.ofMillis(100)) < 0, "rejection took " + elapsed);
+        assertEquals(1.0, meterRegistry.get("oanda.circuit-breaker.transitions").tag("to", "OPEN").counter().count());
+    }
+
+    @Test
+    void fetchRates_SlowAttempt_IsHedged() {
+        // Arrange: ten fast calls set the p95, then one response stalls well past it
+        ReflectionTestUtils.setField(oandaApiService, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(oandaApiService, "hedgeMinSamples", 10);
+        respond(request -> request == 11 ? ok().setHeadersDelay(3, TimeUnit.SECONDS) : ok());
+        for (int i = 0; i < 10; i++) {
+            oandaApiService.fetchRates("USD", "EUR", DAY, DAY).block();
+        }
+
+        // Act
+        long start = System.nanoTime();
+        RateBatch batch = oandaApiService.fetchRates("USD", "EUR", DAY, DAY).block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(1, batch.getSize());
+        assertEquals(12, server.getRequestCount());
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, "hedged request took " + elapsed);
+        assertEquals(1.0, meterRegistry.get("oanda.request.hedges").counter().count());
+    }
+
+    @Test
+    void fetchRates_BulkheadFull_RejectsWithoutCallingUpstream() {
+        // Arrange
+        oandaApiService = service(Bulkhead.of("localhost", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build()));
+        respond(request -> ok().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        CompletableFuture<RateBatch> inFlight = oandaApiService.fetchRates("USD", "EUR", DAY, DAY).toFuture();
+
+        // Act & Assert
+        assertThrows(BulkheadFullException.class, () -> oandaApiService.fetchRates("USD", "JPY", DAY, DAY).block());
+        assertNotNull(inFlight.join());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void fetchRates_ChunkedBody_KeepsTheFirstCloseOfEachDay() {
+        // Arrange: 7-byte chunks split day keys and rates across buffers
+        String body = "{\"meta\":{\"base\":\"USD\",\"quote\":\"EUR\",\"data\":{\"2000-01-01\":[]}},"
+                + "\"data\":{"
+                + "\"2024-01-02\":[{\"date\":\"2024-01-02\",\"close\":\"0.9212345\",\"open\":\"9\"},"
+                + "{\"close\":\"0.95\"}],"
+                + "\"2024-02-30\":[{\"close\":\"0.93\"}],"
+                + "\"2024-01-03\":[{\"high\":{\"close\":\"7\"},\"close\":0.9312344}],"
+                + "\"2024-01-04\":[{\"close\":\"n/a\"}],"
+                + "\"2024-01-05\":[{\"close\":\"1234.5\"}]}}";
+        respond(request -> new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setChunkedBody(body, 7));
+
+        // Act
+        RateBatch batch = oandaApiService.fetchRates("USD", "EUR", DAY, DAY.plusDays(3)).block();
+
+        // Assert: invalid dates and rates are skipped, extra decimals round half up
+        assertEquals(3, batch.getSize());
+        assertEquals(DAY, batch.date(0));
+        assertEquals(new BigDecimal("0.921235"), batch.rate(0));
+        assertEquals(new BigDecimal("0.931234"), batch.rate(1));
+        assertEquals(new BigDecimal("1234.500000"), batch.rate(2));
+        assertEquals("OANDA", batch.getSource());
+    }
+
+    @Test
+    void fetchRates_TruncatedBody_Fails() {
+        // Arrange
+        respond(request -> new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(BODY.substring(0, BODY.length() - 3)));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> oandaApiService.fetchRates("USD", "EUR", DAY, DAY).block());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void fetchRates_EmptyBody_Fails() {
+        // Arrange
+        respond(request -> new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> oandaApiService.fetchRates("USD", "EUR", DAY, DAY).block());
+    }
+
+    private OandaApiServiceImpl service(Bulkhead bulkhead) {
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(
+                        HttpClient.create().responseTimeout(Duration.ofSeconds(5))))
+                .baseUrl(server.url("/").toString())
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        OandaApiServiceImpl service = new OandaApiServiceImpl(webClient, meterRegistry, circuitBreaker, bulkhead);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "initialBackoff", 10L);
+        ReflectionTestUtils.setField(service, "maxBackoff", 50L);
+        ReflectionTestUtils.setField(service, "hedgeEnabled", false);
+        ReflectionTestUtils.setField(service, "hedgeMinSamples", 20);
+        ReflectionTestUtils.setField(service, "hedgeMinDelay", 50L);
+        return service;
+    }
+
+    private void respond(IntFunction<MockResponse> responses) {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return responses.apply(requests.incrementAndGet());
+            }
+        });
+    }
+
+    private static MockResponse ok() {
+        return new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(BODY);
+    }
+}
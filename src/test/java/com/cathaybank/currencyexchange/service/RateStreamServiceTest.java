@@ -0,0 +1,139 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.cache.LatestRateSnapshot;
+import com.cathaybank.currencyexchange.dto.ExchangeRateDTO;
+import com.cathaybank.currencyexchange.event.ExchangeRatesUpdatedEvent;
+import com.cathaybank.currencyexchange.service.impl.RateStreamServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateStreamServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private MeterRegistry meterRegistry;
+    private LatestRateSnapshot latestRateSnapshot;
+    private RateStreamServiceImpl rateStreamService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        latestRateSnapshot = new LatestRateSnapshot(null, meterRegistry);
+        rateStreamService = new RateStreamServiceImpl(new ObjectMapper().findAndRegisterModules(),
+                latestRateSnapshot, meterRegistry);
+    }
+
+    @Test
+    void subscribe_WithPairs_ReceivesOnlyTheNewestRateOfThosePairs() {
+        StepVerifier.create(rateStreamService.subscribe(List.of("usd/eur")))
+                .then(() -> rateStreamService.onExchangeRatesUpdated(new ExchangeRatesUpdatedEvent(List.of(
+                        rate("USD", "JPY", "141.03", DAY),
+                        rate("USD", "EUR", "0.91", DAY.minusDays(1)),
+                        rate("USD", "EUR", "0.92", DAY)))))
+                .assertNext(event -> {
+                    assertEquals("rate", event.event());
+                    assertTrue(event.data().contains("\"rate\":0.92"), event.data());
+                    assertTrue(event.data().contains("\"date\":\"2024/01/01 12:00:00\""), event.data());
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void subscribe_SlowConsumer_GetsOnlyTheLatestRatePerPair() {
+        // Arrange: asks for nothing until three syncs have committed
+        StepVerifier.create(rateStreamService.subscribe(List.of()), 0)
+                .then(() -> {
+                    rateStreamService.onExchangeRatesUpdated(update(rate("USD", "EUR", "0.90", DAY)));
+                    rateStreamService.onExchangeRatesUpdated(update(rate("USD", "JPY", "141.03", DAY)));
+                    rateStreamService.onExchangeRatesUpdated(update(rate("USD", "EUR", "0.92", DAY.plusDays(1))));
+                })
+                .thenRequest(10)
+                .assertNext(event -> assertTrue(event.data().contains("\"rate\":0.92"), event.data()))
+                .assertNext(event -> assertTrue(event.data().contains("\"rate\":141.03"), event.data()))
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+
+        assertEquals(1.0, meterRegistry.get("exchange.rate.stream.coalesced").counter().count());
+    }
+
+    @Test
+    void onExchangeRatesUpdated_OlderThanTheLatestRate_IsNotPushed() {
+        // Arrange
+        latestRateSnapshot.replace(List.of(rate("USD", "EUR", "0.92", DAY)));
+
+        StepVerifier.create(rateStreamService.subscribe(List.of("USD/EUR")))
+                .assertNext(event -> assertTrue(event.data().contains("\"rate\":0.92"), event.data()))
+                .then(() -> rateStreamService.onExchangeRatesUpdated(update(rate("USD", "EUR", "0.80", DAY.minusYears(1)))))
+                .then(rateStreamService::sendHeartbeats)
+                .assertNext(event -> {
+                    assertNull(event.data());
+                    assertEquals("heartbeat", event.comment());
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void subscribe_StartsWithTheCurrentRateOfEachStoredPair() {
+        // Arrange: a client reconnecting after USD/EUR and USD/JPY changed; TWD/SGD is only derived
+        latestRateSnapshot.replace(List.of(
+                rate("USD", "EUR", "0.92", DAY),
+                rate("USD", "JPY", "141.03", DAY),
+                rate("USD", "SGD", "1.35", DAY),
+                rate("USD", "TWD", "31.2", DAY)));
+
+        // Act & Assert
+        StepVerifier.create(rateStreamService.subscribe(List.of("USD/EUR", "TWD/SGD")))
+                .assertNext(event -> {
+                    assertEquals("rate", event.event());
+                    assertTrue(event.data().contains("\"rate\":0.92"), event.data());
+                })
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void subscribe_Cancelled_IsRemoved() {
+        // Act
+        StepVerifier.create(rateStreamService.subscribe(List.of("USD/EUR", "USD/JPY")))
+                .then(() -> assertEquals(1, rateStreamService.getSubscriberCount()))
+                .thenCancel()
+                .verify();
+
+        // Assert
+        assertEquals(0, rateStreamService.getSubscriberCount());
+    }
+
+    @Test
+    void subscribe_InvalidPair_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> rateStreamService.subscribe(List.of("USDEUR")));
+    }
+
+    private static ExchangeRatesUpdatedEvent update(ExchangeRateDTO rate) {
+        return new ExchangeRatesUpdatedEvent(List.of(rate));
+    }
+
+    private static ExchangeRateDTO rate(String baseCode, String quoteCode, String rate, LocalDateTime date) {
+        return ExchangeRateDTO.builder()
+                .baseCurrencyCode(baseCode)
+                .quoteCurrencyCode(quoteCode)
+                .rate(new BigDecimal(rate))
+                .date(date)
+                .source("OANDA")
+                .build();
+    }
+}
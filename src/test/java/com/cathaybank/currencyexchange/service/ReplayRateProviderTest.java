@@ -0,0 +1,117 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.dto.RateBatch;
+import com.cathaybank.currencyexchange.service.impl.ReplayRateProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayRateProviderTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+
+    @TempDir
+    Path directory;
+
+    private ReplayRateProvider provider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // A year of USD/EUR behind a header, with Windows line endings and an extra column
+        String csv = "date,rate,volume\r\n" + FIRST_DAY.datesUntil(FIRST_DAY.plusYears(1))
+                .map(date -> date + "," + (1 + date.getDayOfYear() / 10_000.0) + ",100\r\n")
+                .collect(Collectors.joining());
+        Files.writeString(directory.resolve("USD_EUR.csv"), csv);
+        Files.writeString(directory.resolve("USD_JPY.json"), "{\"meta\":{\"base\":\"USD\",\"quote\":\"JPY\"},"
+                + "\"data\":{\"2024-01-01\":[{\"close\":\"141.03\"}],\"2024-01-02\":[{\"close\":\"142.17\"}],"
+                + "\"2024-01-03\":[{\"close\":\"143.21\"}]}}");
+        provider = new ReplayRateProvider(directory.toString(), "REPLAY");
+    }
+
+    @Test
+    void fetchRates_Csv_ReturnsOnlyTheRequestedDays() {
+        // Act
+        RateBatch batch = provider.fetchRates("USD", "EUR", LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 31))
+                .block();
+
+        // Assert
+        assertEquals(31, batch.getSize());
+        assertEquals(LocalDate.of(2023, 3, 1), batch.date(0));
+        assertEquals(LocalDate.of(2023, 3, 31), batch.date(30));
+        assertEquals(new BigDecimal("1.006000"), batch.rate(0));
+        assertEquals("REPLAY", batch.getSource());
+    }
+
+    @Test
+    void fetchRates_CsvRangeOutsideFile_IsEmpty() {
+        // Act
+        RateBatch before = provider.fetchRates("USD", "EUR", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31))
+                .block();
+        RateBatch after = provider.fetchRates("USD", "EUR", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31))
+                .block();
+
+        // Assert
+        assertTrue(before.isEmpty());
+        assertTrue(after.isEmpty());
+    }
+
+    @Test
+    void fetchRates_CsvRangeOverlappingFile_IsClipped() {
+        // Act
+        RateBatch batch = provider.fetchRates("USD", "EUR", LocalDate.of(2022, 12, 1), LocalDate.of(2023, 1, 10))
+                .block();
+
+        // Assert
+        assertEquals(10, batch.getSize());
+        assertEquals(FIRST_DAY, batch.date(0));
+    }
+
+    @Test
+    void fetchRates_RecordedResponse_IsFilteredToTheRange() {
+        // Act
+        RateBatch batch = provider.fetchRates("USD", "JPY", LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3))
+                .block();
+
+        // Assert
+        assertEquals(2, batch.getSize());
+        assertEquals(142_170_000L + 143_210_000L, batch.scaledRate(0) + batch.scaledRate(1));
+    }
+
+    @Test
+    void fetchRates_MoreDecimalsThanTheColumn_RoundsHalfUp() throws IOException {
+        // Arrange
+        Files.writeString(directory.resolve("EUR_GBP.csv"), "2023-01-01,0.8765435\n2023-01-02,0.87654349999\n");
+
+        // Act
+        RateBatch batch = provider.fetchRates("EUR", "GBP", FIRST_DAY, FIRST_DAY.plusDays(1)).block();
+
+        // Assert
+        assertEquals(new BigDecimal("0.876544"), batch.rate(0));
+        assertEquals(new BigDecimal("0.876543"), batch.rate(1));
+    }
+
+    @Test
+    void fetchRates_MissingFile_Fails() {
+        assertThrows(IllegalStateException.class,
+                () -> provider.fetchRates("USD", "GBP", FIRST_DAY, FIRST_DAY).block());
+    }
+
+    @Test
+    void fetchRates_MalformedLine_Fails() throws IOException {
+        // Arrange
+        Files.writeString(directory.resolve("EUR_GBP.csv"), "2023-01-01,0.88\n2023-01-02,abc\n");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> provider.fetchRates("EUR", "GBP", FIRST_DAY, FIRST_DAY.plusDays(1)).block());
+    }
+}
@@ -0,0 +1,134 @@
+package com.cathaybank.currencyexchange.service;
+
+import com.cathaybank.currencyexchange.dto.CurrencyPair;
+import com.cathaybank.currencyexchange.dto.SyncJobDTO;
+import com.cathaybank.currencyexchange.exception.ResourceNotFoundException;
+import com.cathaybank.currencyexchange.service.impl.SyncJobServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SyncJobServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    private SyncJobServiceImpl syncJobService;
+
+    @BeforeEach
+    void setUp() {
+        syncJobService = new SyncJobServiceImpl(exchangeRateService, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        syncJobService.destroy();
+    }
+
+    @Test
+    void submit_WhileJobActive_CollapsesIntoIt() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(exchangeRateService).syncExchangeRates(any());
+
+        // Act
+        SyncJobDTO first = syncJobService.submit(SyncJobDTO.Trigger.MANUAL);
+        SyncJobDTO second = syncJobService.submit(SyncJobDTO.Trigger.SCHEDULED);
+        release.countDown();
+        SyncJobDTO finished = awaitFinished(first.getId());
+
+        // Assert
+        assertEquals(first.getId(), second.getId());
+        assertEquals(2, second.getTriggerCount());
+        assertEquals(SyncJobDTO.Status.SUCCEEDED, finished.getStatus());
+        verify(exchangeRateService, times(1)).syncExchangeRates(any());
+    }
+
+    @Test
+    void submit_AfterJobFinished_StartsANewJob() throws Exception {
+        // Act
+        SyncJobDTO first = syncJobService.submit(SyncJobDTO.Trigger.MANUAL);
+        awaitFinished(first.getId());
+        SyncJobDTO second = syncJobService.submit(SyncJobDTO.Trigger.MANUAL);
+        awaitFinished(second.getId());
+
+        // Assert
+        assertNotEquals(first.getId(), second.getId());
+        verify(exchangeRateService, times(2)).syncExchangeRates(any());
+    }
+
+    @Test
+    void getJob_ReportsPerPairProgress() throws Exception {
+        // Arrange
+        CurrencyPair usdEur = new CurrencyPair("USD", "EUR");
+        CurrencyPair usdJpy = new CurrencyPair("USD", "JPY");
+        CurrencyPair eurUsd = new CurrencyPair("EUR", "USD");
+        doAnswer(invocation -> {
+            SyncProgressListener listener = invocation.getArgument(0);
+            listener.onPlanned(List.of(usdEur, usdJpy), List.of(eurUsd));
+            listener.onPairFetched(usdEur, 2, false);
+            listener.onPairFetched(usdJpy, 0, true);
+            listener.onRatesSaved(5);
+            return null;
+        }).when(exchangeRateService).syncExchangeRates(any());
+
+        // Act
+        SyncJobDTO job = awaitFinished(syncJobService.submit(SyncJobDTO.Trigger.MANUAL).getId());
+
+        // Assert
+        assertEquals(3, job.getTotalPairs());
+        assertEquals(3, job.getCompletedPairs());
+        assertEquals(1, job.getFailedPairs());
+        assertEquals(5, job.getSavedRates());
+        assertEquals(SyncJobDTO.PairStatus.SYNCED, job.getPairs().get(0).getStatus());
+        assertEquals(2, job.getPairs().get(0).getWindows());
+        assertEquals(SyncJobDTO.PairStatus.UP_TO_DATE, job.getPairs().get(2).getStatus());
+    }
+
+    @Test
+    void getJob_WhenSyncThrows_ReportsFailure() throws Exception {
+        // Arrange
+        doThrow(new IllegalStateException("database unavailable")).when(exchangeRateService).syncExchangeRates(any());
+
+        // Act
+        SyncJobDTO job = awaitFinished(syncJobService.submit(SyncJobDTO.Trigger.SCHEDULED).getId());
+
+        // Assert
+        assertEquals(SyncJobDTO.Status.FAILED, job.getStatus());
+        assertEquals("database unavailable", job.getError());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    void getJob_UnknownId_ThrowsResourceNotFoundException() {
+        assertThrows(ResourceNotFoundException.class, () -> syncJobService.getJob("missing"));
+    }
+
+    private SyncJobDTO awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            SyncJobDTO job = syncJobService.getJob(id);
+            if (job.getStatus() == SyncJobDTO.Status.SUCCEEDED || job.getStatus() == SyncJobDTO.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Sync job " + id + " did not finish within " + TIMEOUT);
+        return null;
+    }
+}
@@ -0,0 +1,132 @@
+package com.cathaybank.currencyexchange.util;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessLogFilterTest {
+
+    private AccessLogFilter filter;
+    private Logger accessLogger;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AccessLogFilter();
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "sampleRate", 1.0);
+        ReflectionTestUtils.setField(filter, "includeBody", false);
+        ReflectionTestUtils.setField(filter, "maxBodyLength", 8);
+
+        accessLogger = (Logger) LoggerFactory.getLogger("com.cathaybank.currencyexchange.access");
+        appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(appender);
+    }
+
+    @Test
+    void doFilter_WritesOneKeyValueEvent() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currencies");
+        request.setQueryString("page=1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, new MockFilterChain());
+
+        // Assert
+        assertEquals(1, appender.list.size());
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("method=GET uri=/api/currencies query=page=1 status=200"), message);
+        assertFalse(message.contains("requestBody="), message);
+    }
+
+    @Test
+    void doFilter_WithoutBodyCapture_DoesNotWrap() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currencies");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertSame(request, chain.getRequest());
+        assertSame(response, chain.getResponse());
+    }
+
+    @Test
+    void doFilter_Unsampled_LogsOnlyServerErrors() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "sampleRate", 0.0);
+        MockHttpServletResponse failedResponse = new MockHttpServletResponse();
+        failedResponse.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/currencies"), new MockHttpServletResponse(),
+                new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/exchange-rates/sync"), failedResponse,
+                new MockFilterChain());
+
+        // Assert
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("status=503"));
+    }
+
+    @Test
+    void doFilter_LoggerAboveInfo_LogsNothing() throws Exception {
+        // Arrange
+        accessLogger.setLevel(ch.qos.logback.classic.Level.WARN);
+
+        try {
+            // Act
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/currencies"), new MockHttpServletResponse(),
+                    new MockFilterChain());
+
+            // Assert
+            assertTrue(appender.list.isEmpty());
+        } finally {
+            accessLogger.setLevel(null);
+        }
+    }
+
+    @Test
+    void doFilter_WithBodyCapture_CapsBodiesAndStillWritesFullResponse() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "includeBody", true);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/currencies");
+        request.setContent("{\"code\":\"USD\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, (req, res) -> {
+            req.getInputStream().readAllBytes();
+            res.getOutputStream().write("0123456789".getBytes(StandardCharsets.UTF_8));
+        });
+
+        // Assert
+        assertEquals("0123456789", response.getContentAsString());
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("requestBody={\"code\":...(truncated)"), message);
+        assertTrue(message.contains("responseBody=01234567...(truncated)"), message);
+    }
+}